@@ -0,0 +1,136 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import com.google.android.exoplayer2.*;
+import com.google.android.exoplayer2.source.TrackGroupArray;
+import com.google.android.exoplayer2.trackselection.ExoTrackSelection;
+import com.google.android.exoplayer2.upstream.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load control whose {@link BufferingProfile} can be changed while the player is running. Each profile gets its own
+ * {@link DefaultLoadControl}, all of them sharing one allocator so media that is already buffered survives the switch.
+ * The switch happens on the playback thread the next time ExoPlayer asks for a loading decision. ExoPlayer reads the
+ * back buffer duration only when it is built, so that value stays the one of the first profile, see
+ * {@link #getBackBufferMs()}.
+ */
+public class AdjustableLoadControl implements LoadControl {
+    private final DefaultAllocator allocator = new DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE);
+    private final AtomicReference<BufferingProfile> pendingProfile = new AtomicReference<>();
+    private final int backBufferMs;
+    private final long backBufferDurationUs;
+    private volatile BufferingProfile profile;
+    private LoadControl delegate;
+    private Renderer[] renderers;
+    private TrackGroupArray trackGroups;
+    private ExoTrackSelection[] trackSelections;
+
+    public AdjustableLoadControl(BufferingProfile profile) {
+        this.profile = profile;
+        this.delegate = profile.createLoadControl(allocator);
+        this.backBufferMs = profile.backBufferMs;
+        this.backBufferDurationUs = delegate.getBackBufferDurationUs();
+    }
+
+    public BufferingProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * The back buffer of the profile this load control was created with, the one ExoPlayer keeps using. A player that
+     * needs a different back buffer has to be built anew.
+     */
+    public int getBackBufferMs() {
+        return backBufferMs;
+    }
+
+    public void setProfile(BufferingProfile profile) {
+        this.profile = profile;
+        pendingProfile.set(profile);
+    }
+
+    // Only called on the playback thread, the new delegate is told about the current tracks so it sizes its target the same way.
+    private LoadControl delegate() {
+        BufferingProfile pending = pendingProfile.getAndSet(null);
+        if (null != pending) {
+            delegate = pending.createLoadControl(allocator);
+            if (null != renderers) {
+                delegate.onTracksSelected(renderers, trackGroups, trackSelections);
+            }
+        }
+        return delegate;
+    }
+
+    @Override
+    public void onPrepared() {
+        delegate().onPrepared();
+    }
+
+    @Override
+    public void onTracksSelected(Renderer[] renderers, TrackGroupArray trackGroups, ExoTrackSelection[] trackSelections) {
+        this.renderers = renderers;
+        this.trackGroups = trackGroups;
+        this.trackSelections = trackSelections;
+        delegate().onTracksSelected(renderers, trackGroups, trackSelections);
+    }
+
+    @Override
+    public void onStopped() {
+        delegate().onStopped();
+        renderers = null;
+    }
+
+    @Override
+    public void onReleased() {
+        delegate().onReleased();
+        renderers = null;
+    }
+
+    @Override
+    public Allocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public long getBackBufferDurationUs() {
+        return backBufferDurationUs;
+    }
+
+    @Override
+    public boolean retainBackBufferFromKeyframe() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldContinueLoading(long playbackPositionUs, long bufferedDurationUs, float playbackSpeed) {
+        return delegate().shouldContinueLoading(playbackPositionUs, bufferedDurationUs, playbackSpeed);
+    }
+
+    @Override
+    public boolean shouldStartPlayback(long bufferedDurationUs, float playbackSpeed, boolean rebuffering, long targetLiveOffsetUs) {
+        return delegate().shouldStartPlayback(bufferedDurationUs, playbackSpeed, rebuffering, targetLiveOffsetUs);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.*;
+import android.util.*;
+import android.widget.ImageView;
+
+import com.squareup.picasso.*;
+
+import org.json.*;
+
+/**
+ * Loads stream artwork and control icons for every player through one Picasso instance. Bitmaps are decoded at the
+ * size they are shown at, kept in a memory cache with a fixed cap, and downloads go through Picasso's http disk cache.
+ */
+public class Artwork {
+    // Same as the maxWidth and maxHeight of exo_image, so prefetched artwork is found in the memory cache when shown.
+    private static final int ARTWORK_WIDTH_DP = 144;
+    private static final int ARTWORK_HEIGHT_DP = 86;
+    private static final int ICON_SIZE_DP = 64;
+    private static final int MAX_MEMORY_CACHE_BYTES = 16 * 1024 * 1024;
+
+    private static Picasso picasso;
+    private static LruCache memoryCache;
+
+    public static synchronized Picasso get(Context context) {
+        if (null == picasso) {
+            Context appContext = context.getApplicationContext();
+            int cacheBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 16, MAX_MEMORY_CACHE_BYTES);
+            memoryCache = new LruCache(cacheBytes);
+            picasso = new Picasso.Builder(appContext)
+                    .memoryCache(memoryCache)
+                    .downloader(new UrlConnectionDownloader(appContext))
+                    .build();
+        }
+        return picasso;
+    }
+
+    /**
+     * Drops the decoded bitmaps, the downloaded images stay in the disk cache.
+     */
+    public static synchronized void evictMemoryCache() {
+        if (null != memoryCache) {
+            memoryCache.evictAll();
+        }
+    }
+
+    public static void loadArtwork(ImageView view, String url) {
+        load(view, url, ARTWORK_WIDTH_DP, ARTWORK_HEIGHT_DP);
+    }
+
+    public static void loadIcon(ImageView view, String url) {
+        load(view, url, ICON_SIZE_DP, ICON_SIZE_DP);
+    }
+
+    // Always decodes at the view's max size, or the given default when it has none, and never at its laid out size.
+    // That keeps one decoded size per image, the one prefetch uses, so the memory cache hits.
+    private static void load(ImageView view, String url, int defaultWidthDp, int defaultHeightDp) {
+        DisplayMetrics metrics = view.getResources().getDisplayMetrics();
+        int width = view.getMaxWidth() < Integer.MAX_VALUE ? view.getMaxWidth() : toPixels(defaultWidthDp, metrics);
+        int height = view.getMaxHeight() < Integer.MAX_VALUE ? view.getMaxHeight() : toPixels(defaultHeightDp, metrics);
+        get(view.getContext())
+                .load(url)
+                .resize(width, height)
+                .centerInside()
+                .onlyScaleDown()
+                .into(view);
+    }
+
+    /**
+     * Downloads and decodes artwork for upcoming items ahead of time, at the size the controller shows it.
+     */
+    public static void prefetch(Context context, JSONArray urls) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int width = toPixels(ARTWORK_WIDTH_DP, metrics);
+        int height = toPixels(ARTWORK_HEIGHT_DP, metrics);
+        Picasso prefetcher = get(context);
+        for (int i = 0; i < urls.length(); i++) {
+            String url = urls.optString(i, null);
+            if (null != url && !url.isEmpty()) {
+                prefetcher.load(url)
+                        .resize(width, height)
+                        .centerInside()
+                        .onlyScaleDown()
+                        .priority(Picasso.Priority.LOW)
+                        .fetch();
+            }
+        }
+    }
+
+    // Rounded like the layout inflater rounds android:maxWidth and maxHeight, so both give the same pixel size.
+    private static int toPixels(int dp, DisplayMetrics metrics) {
+        return Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, metrics));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.*;
+import android.util.Log;
+
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
+
+/**
+ * Holds one bandwidth meter for the whole process so the estimate learned by one stream carries over to the next
+ * setStream/show call. The estimate is persisted and used to seed the meter on the next launch.
+ */
+public class BandwidthMeterProvider {
+    private static final String PREFERENCES = "ExoPlayerPlugin";
+    private static final String KEY_ESTIMATE = "bitrateEstimate";
+
+    private static DefaultBandwidthMeter bandwidthMeter;
+
+    public static synchronized DefaultBandwidthMeter get(Context context) {
+        if (null == bandwidthMeter) {
+            Context appContext = context.getApplicationContext();
+            DefaultBandwidthMeter.Builder builder = new DefaultBandwidthMeter.Builder(appContext);
+            long savedEstimate = getPreferences(appContext).getLong(KEY_ESTIMATE, 0);
+            if (savedEstimate > 0) {
+                Log.i(Player.TAG, "Seeding bandwidth meter with saved estimate " + savedEstimate);
+                builder.setInitialBitrateEstimate(savedEstimate);
+            }
+            bandwidthMeter = builder.build();
+        }
+        return bandwidthMeter;
+    }
+
+    public static synchronized long getEstimate() {
+        return null != bandwidthMeter ? bandwidthMeter.getBitrateEstimate() : 0;
+    }
+
+    public static synchronized void save(Context context) {
+        if (null != bandwidthMeter) {
+            long estimate = bandwidthMeter.getBitrateEstimate();
+            getPreferences(context.getApplicationContext()).edit().putLong(KEY_ESTIMATE, estimate).apply();
+        }
+    }
+
+    private static SharedPreferences getPreferences(Context context) {
+        return context.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.util.Log;
+
+import com.google.android.exoplayer2.*;
+
+import com.google.android.exoplayer2.upstream.DefaultAllocator;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.json.*;
+
+/**
+ * Buffer sizes handed to {@link DefaultLoadControl} when the player is built. The "buffering" configuration setting can
+ * be the name of a preset or an object with a "preset" and any of the individual values overriding it.
+ */
+public class BufferingProfile {
+    public final int minBufferMs;
+    public final int maxBufferMs;
+    public final int bufferForPlaybackMs;
+    public final int bufferForPlaybackAfterRebufferMs;
+    public final int backBufferMs;
+    public final int targetBufferBytes;
+
+    private BufferingProfile(int minBufferMs, int maxBufferMs, int bufferForPlaybackMs, int bufferForPlaybackAfterRebufferMs, int backBufferMs, int targetBufferBytes) {
+        this.minBufferMs = minBufferMs;
+        this.maxBufferMs = Math.max(maxBufferMs, minBufferMs);
+        this.bufferForPlaybackMs = Math.min(bufferForPlaybackMs, minBufferMs);
+        this.bufferForPlaybackAfterRebufferMs = Math.min(bufferForPlaybackAfterRebufferMs, minBufferMs);
+        this.backBufferMs = backBufferMs;
+        this.targetBufferBytes = targetBufferBytes;
+    }
+
+    public static boolean isPreset(String name) {
+        return "lowLatencyStart".equals(name) || "lowMemory".equals(name) || "tv".equals(name) || "default".equals(name);
+    }
+
+    public static BufferingProfile preset(String name) {
+        if (null == name) {
+            name = "";
+        }
+        switch (name) {
+            // Start as soon as a second is buffered, keep the forward buffer moderate.
+            case "lowLatencyStart":
+                return new BufferingProfile(15000, 30000, 1000, 2000, 0, C.LENGTH_UNSET);
+            // Small forward buffer and a hard 8 MB cap on buffered bytes for low RAM devices.
+            case "lowMemory":
+                return new BufferingProfile(10000, 20000, 2500, 5000, 0, 8 * 1024 * 1024);
+            // Plenty of memory and a stable network, buffer far ahead and keep 30s behind for instant rewinds.
+            case "tv":
+                return new BufferingProfile(30000, 120000, 2500, 5000, 30000, C.LENGTH_UNSET);
+            default:
+                return new BufferingProfile(
+                        DefaultLoadControl.DEFAULT_MIN_BUFFER_MS,
+                        DefaultLoadControl.DEFAULT_MAX_BUFFER_MS,
+                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_MS,
+                        DefaultLoadControl.DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS,
+                        DefaultLoadControl.DEFAULT_BACK_BUFFER_DURATION_MS,
+                        DefaultLoadControl.DEFAULT_TARGET_BUFFER_BYTES);
+        }
+    }
+
+    /**
+     * Values that are out of range keep the value of the preset and are reported in errors.
+     */
+    public static BufferingProfile fromConfig(Object value, List<String> errors) {
+        if (value instanceof JSONObject) {
+            JSONObject json = (JSONObject) value;
+            BufferingProfile base = preset(json.optString("preset", null));
+            return new BufferingProfile(
+                    readMs(json, "minBufferMs", base.minBufferMs, errors),
+                    readMs(json, "maxBufferMs", base.maxBufferMs, errors),
+                    readMs(json, "bufferForPlaybackMs", base.bufferForPlaybackMs, errors),
+                    readMs(json, "bufferForPlaybackAfterRebufferMs", base.bufferForPlaybackAfterRebufferMs, errors),
+                    readMs(json, "backBufferMs", base.backBufferMs, errors),
+                    readBytes(json, "targetBufferBytes", base.targetBufferBytes, errors));
+        }
+        return preset(value instanceof String ? (String) value : null);
+    }
+
+    private static int readNumber(JSONObject json, String key, int fallback, List<String> errors) {
+        if (json.isNull(key)) {
+            return fallback;
+        }
+        double value = json.optDouble(key, Double.NaN);
+        if (Double.isNaN(value)) {
+            errors.add("buffering." + key + ": expected a number, got " + json.opt(key));
+            return fallback;
+        }
+        return (int) Math.max(Math.min(value, Integer.MAX_VALUE), Integer.MIN_VALUE);
+    }
+
+    // DefaultLoadControl.Builder throws on negative durations, those keep the value of the preset.
+    private static int readMs(JSONObject json, String key, int fallback, List<String> errors) {
+        int value = readNumber(json, key, fallback, errors);
+        if (value < 0) {
+            errors.add("buffering." + key + ": must be at least 0, got " + value);
+            return fallback;
+        }
+        return value;
+    }
+
+    // Either a positive byte count or C.LENGTH_UNSET to let ExoPlayer size the target from the selected tracks.
+    private static int readBytes(JSONObject json, String key, int fallback, List<String> errors) {
+        int value = readNumber(json, key, fallback, errors);
+        if (value <= 0 && value != C.LENGTH_UNSET) {
+            errors.add("buffering." + key + ": must be positive or -1, got " + value);
+            return fallback;
+        }
+        return value;
+    }
+
+    /**
+     * Smaller version of this profile for running under memory pressure, with the forward buffer and byte target cut to
+     * those of the lowMemory preset where they are bigger and no back buffer. The back buffer only applies to players
+     * built with the profile, a running player keeps its own.
+     */
+    public BufferingProfile shrink() {
+        BufferingProfile lean = preset("lowMemory");
+        return new BufferingProfile(
+                Math.min(minBufferMs, lean.minBufferMs),
+                Math.min(maxBufferMs, lean.maxBufferMs),
+                bufferForPlaybackMs,
+                bufferForPlaybackAfterRebufferMs,
+                0,
+                targetBufferBytes == C.LENGTH_UNSET ? lean.targetBufferBytes : Math.min(targetBufferBytes, lean.targetBufferBytes));
+    }
+
+    public LoadControl createLoadControl(DefaultAllocator allocator) {
+        Log.i(Player.TAG, "Buffering " + minBufferMs + "/" + maxBufferMs + "ms, start after " + bufferForPlaybackMs + "ms, back buffer " + backBufferMs + "ms, target bytes " + targetBufferBytes);
+        return new DefaultLoadControl.Builder()
+                .setAllocator(allocator)
+                .setBufferDurationsMs(minBufferMs, maxBufferMs, bufferForPlaybackMs, bufferForPlaybackAfterRebufferMs)
+                .setBackBuffer(backBufferMs, false)
+                .setTargetBufferBytes(targetBufferBytes)
+                .setPrioritizeTimeOverSizeThresholds(prioritizeTimeOverSizeThresholds())
+                .build();
+    }
+
+    // With an explicit memory target the byte limit has to win over the time limits.
+    public boolean prioritizeTimeOverSizeThresholds() {
+        return targetBufferBytes == C.LENGTH_UNSET;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BufferingProfile)) {
+            return false;
+        }
+        BufferingProfile profile = (BufferingProfile) other;
+        return minBufferMs == profile.minBufferMs
+                && maxBufferMs == profile.maxBufferMs
+                && bufferForPlaybackMs == profile.bufferForPlaybackMs
+                && bufferForPlaybackAfterRebufferMs == profile.bufferForPlaybackAfterRebufferMs
+                && backBufferMs == profile.backBufferMs
+                && targetBufferBytes == profile.targetBufferBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minBufferMs, maxBufferMs, bufferForPlaybackMs, bufferForPlaybackAfterRebufferMs, backBufferMs, targetBufferBytes);
+    }
+}
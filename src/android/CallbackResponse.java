@@ -23,31 +23,118 @@
  */
 package co.frontyard.cordova.plugin.exoplayer;
 
+import android.os.*;
+
 import org.apache.cordova.*;
 import org.json.*;
 
+import java.util.*;
+import java.util.concurrent.*;
+
 public class CallbackResponse {
+    // Payloads are turned into JSON and strings and handed to the bridge here rather than on the main thread, one at a
+    // time so they arrive in the order they were sent.
+    private static final ExecutorService SENDER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "ExoPlayerPlugin:results");
+        }
+    });
+
+    // State events where only the latest one matters, older queued ones are dropped.
+    private static final Set<String> COALESCED_EVENTS = new HashSet<>(Arrays.asList(
+            "STATE_CHANGED_EVENT", "LOADING_EVENT", "IS_PLAYING_CHANGED", "TIMELINE_EVENT", "TRACKS_CHANGED", "PROGRESS_EVENT"));
+
     private CallbackContext callbackContext;
+    private final int batchIntervalMs;
+    private final List<Payload> pending = new ArrayList<>();
+    private Handler handler;
+
+    private final Runnable flushRunnable = new Runnable() {
+        public void run() {
+            flush();
+        }
+    };
 
     public CallbackResponse(CallbackContext callbackContext) {
+        this(callbackContext, 0);
+    }
+
+    /**
+     * When batchIntervalMs is positive, OK events that keep the callback are queued and delivered together as one
+     * JSON array every batchIntervalMs. Anything else is sent right away, after the queued events.
+     */
+    public CallbackResponse(CallbackContext callbackContext, int batchIntervalMs) {
         this.callbackContext = callbackContext;
+        this.batchIntervalMs = batchIntervalMs;
     }
 
     public void send(PluginResult.Status status, boolean keepCallback) {
         if (callbackContext == null) {
             return;
         }
-        PluginResult result = new PluginResult(status);
-        result.setKeepCallback(keepCallback);
-        callbackContext.sendPluginResult(result);
+        flush();
+        final CallbackContext context = callbackContext;
+        SENDER.execute(() -> {
+            PluginResult result = new PluginResult(status);
+            result.setKeepCallback(keepCallback);
+            context.sendPluginResult(result);
+        });
     }
 
-    public void send(PluginResult.Status status, JSONObject message, boolean keepCallback) {
+    public void send(PluginResult.Status status, Payload message, boolean keepCallback) {
         if (callbackContext == null) {
             return;
         }
-        PluginResult result = new PluginResult(status, message);
-        result.setKeepCallback(keepCallback);
-        callbackContext.sendPluginResult(result);
+        if (batchIntervalMs > 0 && status == PluginResult.Status.OK && keepCallback) {
+            enqueue(message);
+            return;
+        }
+        flush();
+        final CallbackContext context = callbackContext;
+        SENDER.execute(() -> {
+            PluginResult result = new PluginResult(status, message.toJson());
+            result.setKeepCallback(keepCallback);
+            context.sendPluginResult(result);
+        });
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (null != handler) {
+            handler.removeCallbacks(flushRunnable);
+        }
+        final List<Payload> messages = new ArrayList<>(pending);
+        final CallbackContext context = callbackContext;
+        pending.clear();
+        SENDER.execute(() -> {
+            JSONArray batch = new JSONArray();
+            for (Payload message : messages) {
+                batch.put(message.toJson());
+            }
+            PluginResult result = new PluginResult(PluginResult.Status.OK, batch);
+            result.setKeepCallback(true);
+            context.sendPluginResult(result);
+        });
+    }
+
+    private void enqueue(Payload message) {
+        String eventType = message.getEventType();
+        if (COALESCED_EVENTS.contains(eventType)) {
+            for (Iterator<Payload> it = pending.iterator(); it.hasNext();) {
+                if (eventType.equals(it.next().getEventType())) {
+                    it.remove();
+                }
+            }
+        }
+        boolean scheduled = !pending.isEmpty();
+        pending.add(message);
+        if (!scheduled) {
+            if (null == handler) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+            handler.postDelayed(flushRunnable, batchIntervalMs);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Runs plugin commands one at a time, in the order they were received. They run on the main thread because the
+ * ExoPlayer instances and their views are bound to it. The queue keeps track of how long each command held the main
+ * thread.
+ */
+public class CommandQueue {
+    // A command that takes longer than a frame at 60 fps gets logged.
+    private static final long SLOW_COMMAND_MS = 16;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private int commandCount;
+    private long totalMs;
+    private long maxMs;
+    private String slowestCommand;
+
+    public void post(final String name, final Runnable command) {
+        handler.post(new Runnable() {
+            public void run() {
+                long startMs = SystemClock.elapsedRealtime();
+                try {
+                    command.run();
+                }
+                finally {
+                    record(name, SystemClock.elapsedRealtime() - startMs);
+                }
+            }
+        });
+    }
+
+    private synchronized void record(String name, long blockedMs) {
+        commandCount++;
+        totalMs += blockedMs;
+        if (blockedMs > maxMs) {
+            maxMs = blockedMs;
+            slowestCommand = name;
+        }
+        if (blockedMs > SLOW_COMMAND_MS) {
+            Log.w(Player.TAG, name + " blocked the main thread for " + blockedMs + " ms");
+        }
+    }
+
+    /**
+     * Adds the number of commands run so far and the time they held the main thread to a stats payload.
+     */
+    public synchronized Payload addStats(Payload stats) {
+        return Payload.addCommandStats(stats, commandCount, totalMs, maxMs, slowestCommand);
+    }
+}
@@ -24,81 +24,555 @@
 package co.frontyard.cordova.plugin.exoplayer;
 
 import android.net.*;
-import android.view.*;
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.MediaItem;
+import com.google.android.exoplayer2.SeekParameters;
+import java.util.*;
 import org.json.*;
 
+/**
+ * Settings passed to show, parsed once into typed values when the configuration is created. Values with the wrong
+ * type or out of range are replaced by their defaults and reported through {@link #getErrors()}. Instances are never
+ * changed, {@link #merge} returns a new configuration with some settings replaced.
+ */
 public class Configuration {
+    public static final String DEFAULT_PLAYER_ID = "default";
+
     private final JSONObject config;
+    private final List<String> errors = new ArrayList<>();
+
+    private final String playerId;
+    private final Uri uri;
+    private final JSONObject dimensions;
+    private final String userAgent;
+    private final boolean okHttp;
+    private final boolean preconnect;
+    private final boolean aspectRatioFillScreen;
+    private final boolean audioOnly;
+    private final boolean inlineView;
+    private final boolean backgroundService;
+    private final boolean muted;
+    private final boolean autoPlay;
+    private final long seekTo;
+    private final MediaItem.LiveConfiguration liveConfiguration;
+    private final JSONObject controller;
+    private final int hideTimeout;
+    private final int forwardTimeMs;
+    private final int rewindTimeMs;
+    private final String subtitleUrl;
+    private final JSONArray subtitles;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int retryCount;
+    private final int retryDelay;
+    private final int retryMaxDelay;
+    private final double retryBackoff;
+    private final double retryJitter;
+    private final List<String> fallbackUrls;
+    private final int failoverAfter;
+    private final boolean showBuffering;
+    private final boolean limitResolutionToView;
+    private final int maxVideoBitrate;
+    private final int maxVideoFrameRate;
+    private final BufferingProfile bufferingProfile;
+    private final int seekCoalesceWindow;
+    private final SeekParameters seekParameters;
+    private final int progressInterval;
+    private final int statsInterval;
+    private final boolean reusePlayer;
+    private final int eventBatchInterval;
+    private final long cacheSize;
+    private final String cacheDirectory;
+    private final String cacheKey;
 
     public Configuration(JSONObject config) {
-        this.config = config;
+        this.config = null != config ? config : new JSONObject();
+
+        playerId = readString("id", DEFAULT_PLAYER_ID);
+        uri = Uri.parse(readString("url", ""));
+        dimensions = readObject("dimensions");
+        userAgent = readString("userAgent", "ExoPlayerPlugin");
+        okHttp = readChoice("httpStack", "default", "default", "okhttp").equals("okhttp");
+        preconnect = readBoolean("preconnect", false);
+        aspectRatioFillScreen = readChoice("aspectRatio", "FIT_SCREEN", "FIT_SCREEN", "FILL_SCREEN").equals("FILL_SCREEN");
+        audioOnly = readBoolean("audioOnly", false);
+        inlineView = readBoolean("inlineView", true);
+        backgroundService = readBoolean("backgroundService", true); // Default on, only used with audioOnly
+        muted = readBoolean("muted", false);
+        autoPlay = readBoolean("autoPlay", true);
+        seekTo = readLong("seekTo", -1, -1);
+        // Unset values leave it to the stream, for example the HLS server control or DASH service description.
+        liveConfiguration = new MediaItem.LiveConfiguration.Builder()
+                .setTargetOffsetMs(readLong("liveTargetOffset", C.TIME_UNSET, 0))
+                .setMinOffsetMs(readLong("liveMinOffset", C.TIME_UNSET, 0))
+                .setMaxOffsetMs(readLong("liveMaxOffset", C.TIME_UNSET, 0))
+                .setMinPlaybackSpeed((float) readDouble("liveMinSpeed", C.RATE_UNSET, 0.1, 1))
+                .setMaxPlaybackSpeed((float) readDouble("liveMaxSpeed", C.RATE_UNSET, 1, 4))
+                .build();
+        controller = readObject("controller");
+        hideTimeout = readInt("hideTimeout", 5000, 0); // Default 5 sec.
+        forwardTimeMs = readInt("forwardTime", 60000, 0); // Default 1 min.
+        rewindTimeMs = readInt("rewindTime", 60000, 0); // Default 1 min.
+        subtitleUrl = readString("subtitleUrl", null);
+        subtitles = readSubtitles();
+        connectTimeout = readInt("connectTimeout", 10000, 0); // Default 10 sec.
+        readTimeout = readInt("readTimeout", 10000, 0); // Default 10 sec.
+        retryCount = readInt("retryCount", 10, 0);
+        retryDelay = readInt("retryDelay", 1000, 0); // Default 1 sec before the first retry.
+        retryMaxDelay = readInt("retryMaxDelay", 5000, 0); // Default 5 sec, same as ExoPlayer.
+        retryBackoff = readDouble("retryBackoff", 2, 1, 10); // Default 2, the delay doubles with every retry.
+        retryJitter = readDouble("retryJitter", 0.2, 0, 1); // Default 0.2, delays vary by up to 20% either way.
+        fallbackUrls = readStrings("fallbackUrls");
+        failoverAfter = readInt("failoverAfter", 2, 1); // Default 2, switch host after a request failed twice.
+        showBuffering = readBoolean("showBuffering", false);
+        limitResolutionToView = readBoolean("limitResolutionToView", false);
+        maxVideoBitrate = readInt("maxVideoBitrate", 0, 0); // Default 0, no limit.
+        maxVideoFrameRate = readInt("maxVideoFrameRate", 0, 0); // Default 0, no limit.
+        bufferingProfile = readBufferingProfile();
+        seekCoalesceWindow = readInt("seekCoalesceWindow", 0, 0); // Default 0, every seek is applied.
+        seekParameters = toSeekParameters(readChoice("seekPrecision", "EXACT", "EXACT", "CLOSEST_SYNC", "PREVIOUS_SYNC", "NEXT_SYNC"));
+        progressInterval = readInt("progressInterval", 0, 0); // Default 0, no progress events.
+        statsInterval = readInt("statsInterval", 0, 0); // Default 0, no periodic stats events.
+        reusePlayer = readBoolean("reusePlayer", false);
+        eventBatchInterval = readInt("eventBatchInterval", 0, 0); // Default 0, events are sent one by one.
+        cacheSize = readLong("cacheSize", 0, 0); // Default 0, cache disabled.
+        cacheDirectory = readString("cacheDirectory", null);
+        cacheKey = readString("cacheKey", null);
+    }
+
+    /**
+     * Returns a new configuration with the given settings added to, or replacing, the ones of this configuration.
+     */
+    public Configuration merge(JSONObject changes) throws JSONException {
+        JSONObject merged = new JSONObject();
+        for (Iterator<String> keys = config.keys(); keys.hasNext(); ) {
+            String key = keys.next();
+            merged.put(key, config.get(key));
+        }
+        for (Iterator<String> keys = changes.keys(); keys.hasNext(); ) {
+            String key = keys.next();
+            merged.put(key, changes.get(key));
+        }
+        return new Configuration(merged);
+    }
+
+    /**
+     * Names of the settings whose parsed values differ between this configuration and the other one.
+     */
+    public Set<String> diff(Configuration other) {
+        Set<String> changed = new LinkedHashSet<>();
+        compare(changed, "url", uri, other.uri);
+        compare(changed, "dimensions", String.valueOf(dimensions), String.valueOf(other.dimensions));
+        compare(changed, "userAgent", userAgent, other.userAgent);
+        compare(changed, "httpStack", okHttp, other.okHttp);
+        compare(changed, "aspectRatio", aspectRatioFillScreen, other.aspectRatioFillScreen);
+        compare(changed, "audioOnly", audioOnly, other.audioOnly);
+        compare(changed, "backgroundService", backgroundService, other.backgroundService);
+        compare(changed, "inlineView", inlineView, other.inlineView);
+        compare(changed, "muted", muted, other.muted);
+        compare(changed, "live", liveConfiguration, other.liveConfiguration);
+        compare(changed, "controller", String.valueOf(controller), String.valueOf(other.controller));
+        compare(changed, "hideTimeout", hideTimeout, other.hideTimeout);
+        compare(changed, "forwardTime", forwardTimeMs, other.forwardTimeMs);
+        compare(changed, "rewindTime", rewindTimeMs, other.rewindTimeMs);
+        compare(changed, "subtitleUrl", subtitleUrl, other.subtitleUrl);
+        compare(changed, "subtitles", String.valueOf(subtitles), String.valueOf(other.subtitles));
+        compare(changed, "connectTimeout", connectTimeout, other.connectTimeout);
+        compare(changed, "readTimeout", readTimeout, other.readTimeout);
+        compare(changed, "retryCount", retryCount, other.retryCount);
+        compare(changed, "retryDelay", retryDelay, other.retryDelay);
+        compare(changed, "retryMaxDelay", retryMaxDelay, other.retryMaxDelay);
+        compare(changed, "retryBackoff", retryBackoff, other.retryBackoff);
+        compare(changed, "retryJitter", retryJitter, other.retryJitter);
+        compare(changed, "fallbackUrls", fallbackUrls, other.fallbackUrls);
+        compare(changed, "failoverAfter", failoverAfter, other.failoverAfter);
+        compare(changed, "showBuffering", showBuffering, other.showBuffering);
+        compare(changed, "limitResolutionToView", limitResolutionToView, other.limitResolutionToView);
+        compare(changed, "maxVideoBitrate", maxVideoBitrate, other.maxVideoBitrate);
+        compare(changed, "maxVideoFrameRate", maxVideoFrameRate, other.maxVideoFrameRate);
+        compare(changed, "buffering", bufferingProfile, other.bufferingProfile);
+        compare(changed, "seekCoalesceWindow", seekCoalesceWindow, other.seekCoalesceWindow);
+        compare(changed, "seekPrecision", seekParameters, other.seekParameters);
+        compare(changed, "progressInterval", progressInterval, other.progressInterval);
+        compare(changed, "statsInterval", statsInterval, other.statsInterval);
+        compare(changed, "eventBatchInterval", eventBatchInterval, other.eventBatchInterval);
+        compare(changed, "cacheSize", cacheSize, other.cacheSize);
+        compare(changed, "cacheDirectory", cacheDirectory, other.cacheDirectory);
+        compare(changed, "cacheKey", cacheKey, other.cacheKey);
+        return changed;
+    }
+
+    private static void compare(Set<String> changed, String name, Object value, Object otherValue) {
+        if (!Objects.equals(value, otherValue)) {
+            changed.add(name);
+        }
+    }
+
+    /**
+     * Problems found while parsing, one message per setting that fell back to its default.
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public String getPlayerId() {
+        return playerId;
     }
 
     public final Uri getUri() {
-        return Uri.parse(config.optString("url", ""));
+        return uri;
     }
 
     public final JSONObject getDimensions() {
-        return config.optJSONObject("dimensions");
+        return dimensions;
     }
 
     public String getUserAgent() {
-        return this.config.optString("userAgent", "ExoPlayerPlugin");
+        return userAgent;
+    }
+
+    public boolean useOkHttp() {
+        return okHttp;
+    }
+
+    public boolean preconnect() {
+        return preconnect;
     }
 
     public boolean isAspectRatioFillScreen() {
-        return config.optString("aspectRatio", "FIT_SCREEN").equalsIgnoreCase("FILL_SCREEN");
+        return aspectRatioFillScreen;
     }
 
     public boolean isAudioOnly() {
-        return config.optBoolean("audioOnly");
+        return audioOnly;
+    }
+
+    /**
+     * Whether an audio only player keeps playing in the background through {@link PlaybackService}.
+     */
+    public boolean useBackgroundService() {
+        return audioOnly && backgroundService;
     }
 
     public boolean useInlineView() {
-        return config.optBoolean("inlineView", true);
+        return inlineView;
+    }
+
+    public boolean isMuted() {
+        return muted;
     }
 
     public boolean autoPlay() {
-        return config.optBoolean("autoPlay", true);
+        return autoPlay;
     }
 
     public long getSeekTo() {
-        return config.optLong("seekTo", -1);
+        return seekTo;
+    }
+
+    /**
+     * Target, min and max offset from the live edge and the playback speeds the player may use to stay at the target.
+     */
+    public MediaItem.LiveConfiguration getLiveConfiguration() {
+        return liveConfiguration;
     }
 
     public final JSONObject getController() {
-        return config.optJSONObject("controller");
+        return controller;
     }
 
     public int getHideTimeout() {
-        return config.optInt("hideTimeout", 5000); // Default 5 sec.
+        return hideTimeout;
     }
 
     public int getForwardTimeMs() {
-        return config.optInt("forwardTime", 60000); // Default 1 min.
+        return forwardTimeMs;
     }
 
     public int getRewindTimeMs() {
-        return config.optInt("rewindTime", 60000); // Default 1 min.
+        return rewindTimeMs;
     }
 
     public String getSubtitleUrl() {
-        return config.optString("subtitleUrl", null);
+        return subtitleUrl;
+    }
+
+    /**
+     * Sidecar subtitle tracks as {url, mimeType, language, label, default} objects. A plain subtitleUrl is turned into a
+     * single track that is selected by default.
+     */
+    public JSONArray getSubtitles() {
+        return subtitles;
     }
 
     public int getConnectTimeout() {
-        return config.optInt("connectTimeout", 10000); // Default 10 sec.
+        return connectTimeout;
     }
 
     public int getReadTimeout() {
-        return config.optInt("readTimeout", 10000); // Default 10 sec.
+        return readTimeout;
     }
 
     public int getRetryCount() {
-        return config.optInt("retryCount", 10);
+        return retryCount;
+    }
+
+    public int getRetryDelay() {
+        return retryDelay;
+    }
+
+    public int getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public double getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public double getRetryJitter() {
+        return retryJitter;
+    }
+
+    /**
+     * Base urls of mirrors serving the same content as the stream url, tried in order when a host keeps failing.
+     */
+    public List<String> getFallbackUrls() {
+        return fallbackUrls;
+    }
+
+    public int getFailoverAfter() {
+        return failoverAfter;
     }
 
     public boolean getShowBuffering() {
-        return config.optBoolean("showBuffering");
+        return showBuffering;
+    }
+
+    public boolean limitResolutionToView() {
+        return limitResolutionToView;
+    }
+
+    public int getMaxVideoBitrate() {
+        return maxVideoBitrate;
+    }
+
+    public int getMaxVideoFrameRate() {
+        return maxVideoFrameRate;
+    }
+
+    public BufferingProfile getBufferingProfile() {
+        return bufferingProfile;
+    }
+
+    public int getSeekCoalesceWindow() {
+        return seekCoalesceWindow;
+    }
+
+    public SeekParameters getSeekParameters() {
+        return seekParameters;
+    }
+
+    public static SeekParameters toSeekParameters(String precision) {
+        if (null == precision) {
+            return SeekParameters.EXACT;
+        }
+        switch (precision.toUpperCase()) {
+            case "CLOSEST_SYNC":
+                return SeekParameters.CLOSEST_SYNC;
+            case "PREVIOUS_SYNC":
+                return SeekParameters.PREVIOUS_SYNC;
+            case "NEXT_SYNC":
+                return SeekParameters.NEXT_SYNC;
+            default:
+                return SeekParameters.EXACT;
+        }
+    }
+
+    public int getProgressInterval() {
+        return progressInterval;
+    }
+
+    public int getStatsInterval() {
+        return statsInterval;
+    }
+
+    public boolean reusePlayer() {
+        return reusePlayer;
+    }
+
+    public int getEventBatchInterval() {
+        return eventBatchInterval;
+    }
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    private String readString(String key, String fallback) {
+        if (config.isNull(key)) {
+            return fallback;
+        }
+        Object value = config.opt(key);
+        if (value instanceof JSONObject || value instanceof JSONArray) {
+            errors.add(key + ": expected a string, got " + value);
+            return fallback;
+        }
+        return value.toString();
+    }
+
+    // Case insensitive match against the allowed values, returns the value as it is spelled in the list.
+    private String readChoice(String key, String fallback, String... allowed) {
+        String value = readString(key, fallback);
+        for (String choice : allowed) {
+            if (choice.equalsIgnoreCase(value)) {
+                return choice;
+            }
+        }
+        errors.add(key + ": expected one of " + Arrays.toString(allowed) + ", got " + value);
+        return fallback;
+    }
+
+    private boolean readBoolean(String key, boolean fallback) {
+        if (config.isNull(key)) {
+            return fallback;
+        }
+        Object value = config.opt(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if ("true".equalsIgnoreCase(value.toString()) || "false".equalsIgnoreCase(value.toString())) {
+            return Boolean.parseBoolean(value.toString());
+        }
+        errors.add(key + ": expected a boolean, got " + value);
+        return fallback;
+    }
+
+    private long readLong(String key, long fallback, long min) {
+        if (config.isNull(key)) {
+            return fallback;
+        }
+        Object value = config.opt(key);
+        long result;
+        if (value instanceof Number) {
+            result = ((Number) value).longValue();
+        }
+        else {
+            try {
+                result = (long) Double.parseDouble(value.toString().trim());
+            }
+            catch (NumberFormatException e) {
+                errors.add(key + ": expected a number, got " + value);
+                return fallback;
+            }
+        }
+        if (result < min) {
+            errors.add(key + ": must be at least " + min + ", got " + result);
+            return fallback;
+        }
+        return result;
+    }
+
+    private int readInt(String key, int fallback, int min) {
+        return (int) Math.min(readLong(key, fallback, min), Integer.MAX_VALUE);
+    }
+
+    private double readDouble(String key, double fallback, double min, double max) {
+        if (config.isNull(key)) {
+            return fallback;
+        }
+        double result = config.optDouble(key, Double.NaN);
+        if (Double.isNaN(result)) {
+            errors.add(key + ": expected a number, got " + config.opt(key));
+            return fallback;
+        }
+        if (result < min || result > max) {
+            errors.add(key + ": must be between " + min + " and " + max + ", got " + result);
+            return fallback;
+        }
+        return result;
+    }
+
+    private List<String> readStrings(String key) {
+        if (config.isNull(key)) {
+            return Collections.emptyList();
+        }
+        JSONArray array = config.optJSONArray(key);
+        if (null == array) {
+            errors.add(key + ": expected an array, got " + config.opt(key));
+            return Collections.emptyList();
+        }
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            String value = array.optString(i, "");
+            if (value.isEmpty()) {
+                errors.add(key + "[" + i + "]: expected a string, got " + array.opt(i));
+            }
+            else {
+                strings.add(value);
+            }
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    private JSONObject readObject(String key) {
+        if (config.isNull(key)) {
+            return null;
+        }
+        Object value = config.opt(key);
+        if (value instanceof JSONObject) {
+            return (JSONObject) value;
+        }
+        errors.add(key + ": expected an object, got " + value);
+        return null;
+    }
+
+    private JSONArray readSubtitles() {
+        if (config.isNull("subtitles")) {
+            if (null == subtitleUrl) {
+                return null;
+            }
+            JSONObject subtitle = new JSONObject();
+            try {
+                subtitle.put("url", subtitleUrl);
+                subtitle.put("default", true);
+            }
+            catch (JSONException e) {
+                errors.add("subtitleUrl: " + e.getMessage());
+            }
+            return new JSONArray().put(subtitle);
+        }
+        Object value = config.opt("subtitles");
+        if (!(value instanceof JSONArray)) {
+            errors.add("subtitles: expected an array, got " + value);
+            return null;
+        }
+        JSONArray array = (JSONArray) value;
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject subtitle = array.optJSONObject(i);
+            if (null == subtitle || subtitle.optString("url", "").isEmpty()) {
+                errors.add("subtitles[" + i + "]: expected an object with a url, got " + array.opt(i));
+            }
+        }
+        return array;
+    }
+
+    private BufferingProfile readBufferingProfile() {
+        Object value = config.opt("buffering");
+        String preset = value instanceof JSONObject ? ((JSONObject) value).optString("preset", null) : value instanceof String ? (String) value : null;
+        if (null != preset && !BufferingProfile.isPreset(preset)) {
+            errors.add("buffering: unknown preset " + preset);
+        }
+        else if (null != value && !JSONObject.NULL.equals(value) && !(value instanceof JSONObject) && !(value instanceof String)) {
+            errors.add("buffering: expected a preset name or an object, got " + value);
+        }
+        return BufferingProfile.fromConfig(value, errors);
     }
 }
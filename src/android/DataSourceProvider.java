@@ -0,0 +1,134 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.*;
+import android.net.Uri;
+import android.util.Log;
+
+import com.google.android.exoplayer2.ext.okhttp.OkHttpDataSource;
+import com.google.android.exoplayer2.upstream.*;
+import com.google.android.exoplayer2.util.Util;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.*;
+
+/**
+ * Builds the network data source stack from the configuration. Playback and downloads both go through here so they
+ * use the same user agent, timeouts and redirect handling. With httpStack set to "okhttp" requests go through one
+ * OkHttp connection pool shared by every player, which keeps connections alive between segments and multiplexes
+ * requests to the same host over HTTP/2.
+ */
+public class DataSourceProvider {
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // Factories are shared by every player and download with the same http settings.
+    private static final Map<String, HttpDataSource.Factory> httpFactories = new HashMap<>();
+    private static final Map<HttpDataSource.Factory, DataSource.Factory> dataSourceFactories = new HashMap<>();
+    private static OkHttpClient okHttpClient;
+
+    public static synchronized HttpDataSource.Factory getHttpDataSourceFactory(Context context, Configuration config, TransferListener transferListener) {
+        String userAgent = Util.getUserAgent(context, config.getUserAgent());
+        int connectTimeout = config.getConnectTimeout();
+        int readTimeout = config.getReadTimeout();
+
+        String key = config.useOkHttp() + "|" + userAgent + "|" + connectTimeout + "|" + readTimeout + "|" + System.identityHashCode(transferListener);
+        HttpDataSource.Factory factory = httpFactories.get(key);
+        if (null == factory) {
+            if (config.useOkHttp()) {
+                // Clients made with newBuilder share the connection pool and dispatcher of the base client.
+                OkHttpClient client = getOkHttpClient().newBuilder()
+                        .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                        .build();
+                factory = new OkHttpDataSource.Factory(client)
+                        .setUserAgent(userAgent)
+                        .setTransferListener(transferListener);
+            }
+            else {
+                factory = new DefaultHttpDataSource.Factory()
+                        .setUserAgent(userAgent)
+                        .setTransferListener(transferListener)
+                        .setConnectTimeoutMs(connectTimeout)
+                        .setReadTimeoutMs(readTimeout)
+                        .setAllowCrossProtocolRedirects(true);
+            }
+            httpFactories.put(key, factory);
+        }
+        return factory;
+    }
+
+    static synchronized OkHttpClient getOkHttpClient() {
+        if (null == okHttpClient) {
+            okHttpClient = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .followRedirects(true)
+                    .followSslRedirects(true)
+                    .build();
+        }
+        return okHttpClient;
+    }
+
+    /**
+     * Resolves the host and sets up the TCP and TLS connection to it in the background with a HEAD request, so the
+     * connection is waiting in the pool when the player asks for the manifest. Only done for the OkHttp stack.
+     */
+    public static void preconnect(Context context, Configuration config, Uri uri) {
+        String scheme = uri.getScheme();
+        if (!config.useOkHttp() || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            return;
+        }
+        Request request = new Request.Builder()
+                .url(uri.toString())
+                .head()
+                .header("User-Agent", Util.getUserAgent(context, config.getUserAgent()))
+                .build();
+        getOkHttpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.w(Player.TAG, "Preconnect to " + uri.getHost() + " failed: " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+            }
+        });
+    }
+
+    public static synchronized DataSource.Factory getDataSourceFactory(Context context, HttpDataSource.Factory httpDataSourceFactory, TransferListener transferListener) {
+        DataSource.Factory factory = dataSourceFactories.get(httpDataSourceFactory);
+        if (null == factory) {
+            factory = new DefaultDataSource.Factory(context.getApplicationContext(), httpDataSourceFactory)
+                    .setTransferListener(transferListener);
+            dataSourceFactories.put(httpDataSourceFactory, factory);
+        }
+        return factory;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import java.util.List;
+
+import org.json.*;
+
+/**
+ * Settings of {@link Downloads} passed to initDownloads. The http settings of the same object are read by
+ * {@link Configuration}, these are the ones only downloads use.
+ */
+public class DownloadOptions {
+    private static final String DEFAULT_DIRECTORY = "downloads";
+
+    // Bytes the download cache may use before downloads are paused, 0 for no quota.
+    public final long quotaBytes;
+    // Directory of the download cache inside the app files dir.
+    public final String directory;
+    // Segments of one download fetched in parallel.
+    public final int concurrency;
+    // Downloads running at the same time.
+    public final int maxParallelDownloads;
+    public final int progressIntervalMs;
+
+    private DownloadOptions(long quotaBytes, String directory, int concurrency, int maxParallelDownloads, int progressIntervalMs) {
+        this.quotaBytes = quotaBytes;
+        this.directory = directory;
+        this.concurrency = concurrency;
+        this.maxParallelDownloads = maxParallelDownloads;
+        this.progressIntervalMs = progressIntervalMs > 0 ? progressIntervalMs : 1000;
+    }
+
+    /**
+     * Values of the wrong type or out of range keep their defaults and are reported in errors.
+     */
+    public static DownloadOptions fromConfig(JSONObject json, List<String> errors) {
+        if (null == json) {
+            json = new JSONObject();
+        }
+        return new DownloadOptions(
+                readLong(json, "quotaBytes", 0, 0, errors), // Default 0, no quota.
+                readDirectory(json, "directory", DEFAULT_DIRECTORY, errors),
+                readInt(json, "concurrency", 4, 1, errors), // Default 4 segments in parallel.
+                readInt(json, "maxParallelDownloads", 2, 1, errors),
+                readInt(json, "progressInterval", 0, 0, errors)); // Default 0, every second.
+    }
+
+    private static long readLong(JSONObject json, String key, long fallback, long min, List<String> errors) {
+        if (json.isNull(key)) {
+            return fallback;
+        }
+        double value = json.optDouble(key, Double.NaN);
+        if (Double.isNaN(value)) {
+            errors.add(key + ": expected a number, got " + json.opt(key));
+            return fallback;
+        }
+        long result = (long) value;
+        if (result < min) {
+            errors.add(key + ": must be at least " + min + ", got " + result);
+            return fallback;
+        }
+        return result;
+    }
+
+    private static int readInt(JSONObject json, String key, int fallback, int min, List<String> errors) {
+        return (int) Math.min(readLong(json, key, fallback, min, errors), Integer.MAX_VALUE);
+    }
+
+    // A path below the files dir, absolute paths and parent references would leave it.
+    private static String readDirectory(JSONObject json, String key, String fallback, List<String> errors) {
+        if (json.isNull(key)) {
+            return fallback;
+        }
+        Object value = json.opt(key);
+        String directory = value instanceof String ? ((String) value).trim() : "";
+        if (directory.isEmpty() || directory.startsWith("/") || directory.contains("..")) {
+            errors.add(key + ": expected a directory name, got " + value);
+            return fallback;
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.*;
+import android.net.*;
+import android.os.*;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.offline.*;
+import com.google.android.exoplayer2.upstream.*;
+import com.google.android.exoplayer2.upstream.cache.*;
+import com.google.android.exoplayer2.util.MimeTypes;
+import com.google.android.exoplayer2.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.cordova.*;
+import org.json.*;
+
+/**
+ * Offline downloads for HLS, DASH, SmoothStreaming and progressive content. Downloads are stored in their own cache
+ * that is never evicted and fetched through the same data source stack playback uses. Once a download completes,
+ * {@link Player} reads it from this cache, so it plays without network access.
+ *
+ * The download index is persisted, so queued and unfinished downloads resume when {@link #init} is called again after
+ * the process was killed. There is no DownloadService, downloads only run while the app process is alive.
+ */
+public class Downloads {
+    private static final int STOP_REASON_PAUSED = 1;
+
+    private static SimpleCache cache;
+    private static DownloadManager downloadManager;
+    private static ExecutorService executor;
+    private static CallbackResponse events;
+    private static long quotaBytes;
+    private static int progressIntervalMs;
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    // Uris of completed downloads by download id, so players can check them without reading the index.
+    private static final Map<String, Uri> completed = new ConcurrentHashMap<>();
+
+    private static final DownloadManager.Listener downloadListener = new DownloadManager.Listener() {
+        @Override
+        public void onDownloadChanged(@NonNull DownloadManager manager, @NonNull Download download, @Nullable Exception finalException) {
+            updateCompleted(download);
+            send(Payload.downloadEvent(download));
+            checkQuota();
+            scheduleProgress();
+        }
+
+        @Override
+        public void onDownloadRemoved(@NonNull DownloadManager manager, @NonNull Download download) {
+            completed.remove(download.request.id);
+            send(Payload.downloadEvent(download));
+        }
+    };
+
+    private static final Runnable progressRunnable = new Runnable() {
+        public void run() {
+            for (Download download : downloadManager.getCurrentDownloads()) {
+                if (download.state == Download.STATE_DOWNLOADING) {
+                    send(Payload.downloadProgressEvent(download));
+                }
+            }
+            checkQuota();
+            scheduleProgress();
+        }
+    };
+
+    /**
+     * Creates the download manager on first call, later calls only update the settings and the event callback. The
+     * options hold the {@link DownloadOptions} and the http settings of {@link Configuration}. Must be called on the
+     * main thread.
+     */
+    public static synchronized void init(Context context, JSONObject options, CallbackContext callbackContext) {
+        events = new CallbackResponse(callbackContext);
+        Configuration config = new Configuration(options);
+        List<String> errors = new ArrayList<>(config.getErrors());
+        DownloadOptions downloadOptions = DownloadOptions.fromConfig(options, errors);
+        if (!errors.isEmpty()) {
+            send(Payload.configErrorEvent(errors));
+        }
+        quotaBytes = downloadOptions.quotaBytes;
+        progressIntervalMs = downloadOptions.progressIntervalMs;
+
+        if (null == downloadManager) {
+            Context appContext = context.getApplicationContext();
+            File directory = new File(appContext.getFilesDir(), downloadOptions.directory);
+            Log.i(Player.TAG, "Creating download manager in " + directory);
+            cache = new SimpleCache(directory, new NoOpCacheEvictor(), MediaCache.getDatabaseProvider(appContext));
+
+            DefaultBandwidthMeter bandwidthMeter = BandwidthMeterProvider.get(appContext);
+            HttpDataSource.Factory httpDataSourceFactory = DataSourceProvider.getHttpDataSourceFactory(appContext, config, bandwidthMeter);
+            DataSource.Factory dataSourceFactory = DataSourceProvider.getDataSourceFactory(appContext, httpDataSourceFactory, bandwidthMeter);
+            // Segments of one download are fetched in parallel on this pool.
+            executor = Executors.newFixedThreadPool(downloadOptions.concurrency);
+
+            downloadManager = new DownloadManager(appContext, MediaCache.getDatabaseProvider(appContext), cache, dataSourceFactory, executor);
+            downloadManager.addListener(downloadListener);
+            downloadManager.resumeDownloads();
+            DownloadIndex index = downloadManager.getDownloadIndex();
+            executor.execute(() -> loadCompleted(index));
+        }
+        downloadManager.setMaxParallelDownloads(downloadOptions.maxParallelDownloads);
+        checkQuota();
+        scheduleProgress();
+    }
+
+    public static synchronized Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Reads from the download cache first and falls back to the upstream factory. Nothing is written to the download
+     * cache during playback.
+     */
+    public static DataSource.Factory wrap(Cache cache, DataSource.Factory upstreamFactory) {
+        return new CacheDataSource.Factory()
+                .setCache(cache)
+                .setUpstreamDataSourceFactory(upstreamFactory)
+                .setCacheWriteDataSinkFactory(null);
+    }
+
+    public static boolean add(JSONObject request) {
+        if (null == downloadManager || null == request) {
+            return false;
+        }
+        String url = request.isNull("url") ? "" : request.optString("url");
+        if (url.isEmpty()) {
+            Log.w(Player.TAG, "Download without url ignored");
+            return false;
+        }
+        if (isOverQuota()) {
+            send(Payload.downloadQuotaEvent(cache.getCacheSpace(), quotaBytes));
+            return false;
+        }
+        Uri uri = Uri.parse(url);
+        DownloadRequest downloadRequest = new DownloadRequest.Builder(request.isNull("id") ? url : request.optString("id"), uri)
+                .setMimeType(inferMimeType(uri))
+                .setCustomCacheKey(request.isNull("cacheKey") ? null : request.optString("cacheKey"))
+                .build();
+        downloadManager.addDownload(downloadRequest);
+        return true;
+    }
+
+    public static void pause(String id) {
+        if (null == downloadManager) {
+            return;
+        }
+        if (null == id) {
+            downloadManager.pauseDownloads();
+        }
+        else {
+            downloadManager.setStopReason(id, STOP_REASON_PAUSED);
+        }
+    }
+
+    public static void resume(String id) {
+        if (null == downloadManager) {
+            return;
+        }
+        if (null == id) {
+            downloadManager.resumeDownloads();
+        }
+        else {
+            downloadManager.setStopReason(id, Download.STOP_REASON_NONE);
+        }
+    }
+
+    public static void remove(String id) {
+        if (null != downloadManager && null != id) {
+            downloadManager.removeDownload(id);
+        }
+    }
+
+    /**
+     * Whether a completed download of the uri exists, so playing it needs no network. Reads the in-memory set kept by
+     * the download listener, so it is cheap enough for the main thread.
+     */
+    public static boolean isDownloaded(Uri uri) {
+        return completed.containsValue(uri);
+    }
+
+    private static void updateCompleted(Download download) {
+        if (download.state == Download.STATE_COMPLETED) {
+            completed.put(download.request.id, download.request.uri);
+        }
+        else {
+            completed.remove(download.request.id);
+        }
+    }
+
+    // Runs once off the main thread. Downloads completing meanwhile are added by the listener as well.
+    private static void loadCompleted(DownloadIndex index) {
+        try (DownloadCursor cursor = index.getDownloads(Download.STATE_COMPLETED)) {
+            while (cursor.moveToNext()) {
+                Download download = cursor.getDownload();
+                completed.putIfAbsent(download.request.id, download.request.uri);
+            }
+        }
+        catch (IOException e) {
+            Log.e(Player.TAG, "Error reading download index", e);
+        }
+    }
+
+    public static Payload list() {
+        List<Download> downloads = new ArrayList<>();
+        if (null != downloadManager) {
+            try (DownloadCursor cursor = downloadManager.getDownloadIndex().getDownloads()) {
+                while (cursor.moveToNext()) {
+                    downloads.add(cursor.getDownload());
+                }
+            }
+            catch (IOException e) {
+                Log.e(Player.TAG, "Error reading download index", e);
+            }
+        }
+        return Payload.downloadsEvent(downloads, null != cache ? cache.getCacheSpace() : 0, quotaBytes);
+    }
+
+    public static synchronized void release() {
+        handler.removeCallbacks(progressRunnable);
+        if (null != downloadManager) {
+            downloadManager.release();
+            downloadManager = null;
+        }
+        if (null != executor) {
+            executor.shutdown();
+            executor = null;
+        }
+        if (null != cache) {
+            cache.release();
+            cache = null;
+        }
+        completed.clear();
+        events = null;
+    }
+
+    private static boolean isOverQuota() {
+        return quotaBytes > 0 && null != cache && cache.getCacheSpace() >= quotaBytes;
+    }
+
+    private static void checkQuota() {
+        if (isOverQuota() && !downloadManager.getDownloadsPaused()) {
+            Log.i(Player.TAG, "Download quota of " + quotaBytes + " bytes reached, pausing downloads");
+            downloadManager.pauseDownloads();
+            send(Payload.downloadQuotaEvent(cache.getCacheSpace(), quotaBytes));
+        }
+    }
+
+    private static void scheduleProgress() {
+        handler.removeCallbacks(progressRunnable);
+        if (null != downloadManager && !downloadManager.getDownloadsPaused()) {
+            for (Download download : downloadManager.getCurrentDownloads()) {
+                if (download.state == Download.STATE_DOWNLOADING) {
+                    handler.postDelayed(progressRunnable, progressIntervalMs);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void send(Payload payload) {
+        if (null != events) {
+            events.send(PluginResult.Status.OK, payload, true);
+        }
+    }
+
+    private static String inferMimeType(Uri uri) {
+        switch (Util.inferContentType(uri)) {
+            case C.CONTENT_TYPE_DASH:
+                return MimeTypes.APPLICATION_MPD;
+            case C.CONTENT_TYPE_HLS:
+                return MimeTypes.APPLICATION_M3U8;
+            case C.CONTENT_TYPE_SS:
+                return MimeTypes.APPLICATION_SS;
+            default:
+                return null;
+        }
+    }
+}
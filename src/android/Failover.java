@@ -0,0 +1,126 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.exoplayer2.upstream.*;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Points requests at a mirror when the current host keeps failing. The stream url's directory is the first base, the
+ * configured fallback urls follow. Requests under the stream's base, or on the same host, are rewritten to the active
+ * base when they are opened, so loads already in progress continue on the new host without restarting playback.
+ */
+public class Failover implements ResolvingDataSource.Resolver {
+    // Loads that were in flight on the old host fail too, this keeps them from skipping straight past the next mirror.
+    private static final long SWITCH_COOLDOWN_MS = 1000;
+
+    private final String[] bases;
+    private final int failoverAfter;
+    private final Consumer<String> listener;
+    private volatile int active = 0;
+    private long lastSwitchMs;
+
+    private Failover(Uri uri, List<String> fallbackUrls, int failoverAfter, Consumer<String> listener) {
+        this.bases = new String[fallbackUrls.size() + 1];
+        this.bases[0] = baseOf(uri.toString());
+        for (int i = 0; i < fallbackUrls.size(); i++) {
+            String fallbackUrl = fallbackUrls.get(i);
+            this.bases[i + 1] = fallbackUrl.endsWith("/") ? fallbackUrl : fallbackUrl + "/";
+        }
+        this.failoverAfter = failoverAfter;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns null when there are no fallback urls configured.
+     */
+    public static Failover create(Configuration config, Consumer<String> listener) {
+        if (config.getFallbackUrls().isEmpty()) {
+            return null;
+        }
+        return new Failover(config.getUri(), config.getFallbackUrls(), config.getFailoverAfter(), listener);
+    }
+
+    /**
+     * Returns this failover when it rewrites requests for the given url, or null for a url on another host. Media
+     * items on other hosts are loaded without failover, so their errors don't switch mirrors.
+     */
+    public Failover forUri(Uri uri) {
+        String url = uri.toString();
+        return url.startsWith(bases[0]) || url.startsWith(originOf(bases[0]) + "/") ? this : null;
+    }
+
+    /**
+     * Called from the loading threads for every retryable error, with the number of times that load failed in a row.
+     * Returns whether this error moved playback to the next base.
+     */
+    public synchronized boolean onLoadError(int errorCount) {
+        long now = SystemClock.elapsedRealtime();
+        if (errorCount % failoverAfter != 0 || now - lastSwitchMs < SWITCH_COOLDOWN_MS) {
+            return false;
+        }
+        lastSwitchMs = now;
+        active = (active + 1) % bases.length;
+        Log.w(Player.TAG, "Failing over to " + bases[active]);
+        listener.accept(bases[active]);
+        return true;
+    }
+
+    @Override
+    public DataSpec resolveDataSpec(DataSpec dataSpec) {
+        int index = active;
+        if (0 == index) {
+            return dataSpec;
+        }
+        String target = bases[index];
+        String url = dataSpec.uri.toString();
+        if (url.startsWith(bases[0])) {
+            return dataSpec.withUri(Uri.parse(target + url.substring(bases[0].length())));
+        }
+        String origin = originOf(bases[0]);
+        if (url.startsWith(origin + "/")) {
+            return dataSpec.withUri(Uri.parse(originOf(target) + url.substring(origin.length())));
+        }
+        return dataSpec;
+    }
+
+    private static String baseOf(String url) {
+        String path = Uri.parse(url).getEncodedPath();
+        if (null == path || path.isEmpty()) {
+            path = "/";
+        }
+        return originOf(url) + path.substring(0, path.lastIndexOf('/') + 1);
+    }
+
+    private static String originOf(String url) {
+        Uri uri = Uri.parse(url);
+        return uri.getScheme() + "://" + uri.getEncodedAuthority();
+    }
+}
@@ -32,9 +32,9 @@ import android.widget.*;
 import com.google.android.exoplayer2.ForwardingPlayer;
 import com.google.android.exoplayer2.ui.*;
 import java.lang.String;
+import java.util.*;
 
 import org.json.*;
-import com.squareup.picasso.*;
 
 import android.util.Log;
 
@@ -43,6 +43,8 @@ public class LayoutProvider {
 
     private enum BUTTON { exo_prev, exo_rew, exo_play, exo_pause, exo_ffwd, exo_next }
 
+    private static final Map<String, Integer> viewIds = new HashMap<>();
+
     public static FrameLayout getMainLayout(Activity activity) {
         FrameLayout view = new FrameLayout(activity);
         view.setLayoutParams(new LinearLayout.LayoutParams(WindowManager.LayoutParams.MATCH_PARENT, WindowManager.LayoutParams.MATCH_PARENT));
@@ -53,6 +55,15 @@ public class LayoutProvider {
 
     public static StyledPlayerView getExoPlayerView(Activity activity, Configuration config) {
         StyledPlayerView view = new StyledPlayerView(activity);
+        configureExoPlayerView(activity, view, config);
+        return view;
+    }
+
+    /**
+     * Applies the layout, resize mode and controller settings of the configuration, also to a view that was set up
+     * for another one.
+     */
+    public static void configureExoPlayerView(Activity activity, StyledPlayerView view, Configuration config) {
         JSONObject dim = config.getDimensions();
         ViewGroup.MarginLayoutParams lp;
         if(null == dim) {
@@ -68,17 +79,13 @@ public class LayoutProvider {
             lp.setMargins(left,top,0,0);
         }
         view.setLayoutParams(lp);
-        if (config.isAspectRatioFillScreen()) {
-            view.setResizeMode(AspectRatioFrameLayout.RESIZE_MODE_FILL);
-        }
+        view.setResizeMode(config.isAspectRatioFillScreen() ? AspectRatioFrameLayout.RESIZE_MODE_FILL : AspectRatioFrameLayout.RESIZE_MODE_FIT);
 
         view.setShowMultiWindowTimeBar(true);
         view.setControllerHideOnTouch(true);
         view.setControllerShowTimeoutMs(config.getHideTimeout());
 
         setupController(view, activity, config.getController());
-
-        return view;
     }
 
     public static void setExoPlayerViewLayout(Activity activity, StyledPlayerView view , JSONObject dimensions) {
@@ -100,124 +107,215 @@ public class LayoutProvider {
     public static void setupController(StyledPlayerView parentView, Activity activity, JSONObject controller) {
         if (null != controller) {
             parentView.setUseController(true);
-            setupButtons(parentView, activity, controller);
-            setupBar(parentView, activity, controller);
-            setupBuffering(parentView, activity, controller);
+            ControllerViews views = getControllerViews(parentView, activity);
+            setupButtons(views, controller);
+            setupBar(views, controller);
+            setupBuffering(views, controller);
+            views.applied = controller;
         }
         else {
             parentView.setUseController(false);
         }
     }
 
-    private static void setupButtons(StyledPlayerView parentView, Activity activity, JSONObject controller) {
-        String packageName = activity.getPackageName();
-        String buttonsColor = controller.optString("buttonsColor");
+    /**
+     * Controller views of one player view, looked up once, and the controller settings last applied to them. Kept as a
+     * tag on the player view so it goes away with it.
+     */
+    private static class ControllerViews {
+        final EnumMap<BUTTON, ImageButton> buttons = new EnumMap<>(BUTTON.class);
+        final EnumMap<BUTTON, String> buttonStates = new EnumMap<>(BUTTON.class);
+        final View buttonsLayout;
+        final ImageView imageView;
+        final TextView titleView;
+        final TextView subtitleView;
+        final View timebarView;
+        final TextView positionView;
+        final TextView durationView;
+        final ProgressBar bufferingBar;
+        JSONObject applied;
 
-        JSONObject buttonsConfig = controller.optJSONObject("controlIcons");
-        if (null != buttonsConfig) {
+        ControllerViews(StyledPlayerView parentView, Activity activity) {
             for (BUTTON b : BUTTON.values()) {
-                String buttonName = b.name();
-                ImageButton imageButton = (ImageButton) findView(parentView, activity, buttonName);
+                ImageButton imageButton = (ImageButton) findView(parentView, activity, b.name());
                 if (null != imageButton) {
-                    if (buttonsConfig.has(buttonName)) {
-                        imageButton.setColorFilter(Color.parseColor("#00000000"));
-                        String buttonUrl = buttonsConfig.optString(buttonName);
-                        if (null == buttonUrl || buttonUrl.equals("null")) { // Again, why is this a String "null"?
-                            // Image is set to null, remove it from view.
-                            imageButton.setVisibility(View.GONE);
-                            ((ViewGroup) imageButton.getParent()).removeView(imageButton);
-                        }
-                        else {
-                            // Loading from external source.
-                            Picasso.with(imageButton.getContext()).load(buttonUrl).into(imageButton);
-                        }
-                    }
-                    else if (null != buttonsColor) {
-                        // Using default and tinting.
-                        imageButton.setColorFilter(Color.parseColor(buttonsColor));
-                    }
+                    buttons.put(b, imageButton);
                 }
             }
+            buttonsLayout = findView(parentView, activity, "exo_buttons");
+            imageView = (ImageView) findView(parentView, activity, "exo_image");
+            titleView = (TextView) findView(parentView, activity, "exo_title");
+            subtitleView = (TextView) findView(parentView, activity, "exo_subtitle");
+            timebarView = findView(parentView, activity, "exo_timebar");
+            positionView = null != timebarView ? (TextView) findView(timebarView, activity, "exo_position") : null;
+            durationView = null != timebarView ? (TextView) findView(timebarView, activity, "exo_duration") : null;
+            bufferingBar = (ProgressBar) findView(parentView, activity, "exo_buffering");
         }
-        else {
-            LinearLayout exoButtons = (LinearLayout) findView(parentView, activity, "exo_buttons");
-            exoButtons.setVisibility(View.GONE);
+
+        // Everything counts as changed the first time the controller is set up.
+        boolean changed(JSONObject controller, String name) {
+            return null == applied || !String.valueOf(applied.opt(name)).equals(String.valueOf(controller.opt(name)));
         }
     }
 
-    private static void setupBar(StyledPlayerView parentView, Activity activity, JSONObject controller) {
-        String streamTitle = controller.optString("streamTitle", null);
-        String streamDescription = controller.optString("streamDescription", null);
-        String streamImage = controller.optString("streamImage", null);
-        String textColor = controller.optString("textColor");
-
-        ImageView imageView = (ImageView) findView(parentView, activity, "exo_image");
-        TextView titleView = (TextView) findView(parentView, activity, "exo_title");
-        TextView subtitleView = (TextView) findView(parentView, activity, "exo_subtitle");
-        View timebarView = findView(parentView, activity, "exo_timebar");
-        TextView positionView = (TextView) findView(timebarView, activity, "exo_position");
-        TextView durationView = (TextView) findView(timebarView, activity, "exo_duration");
+    private static ControllerViews getControllerViews(StyledPlayerView parentView, Activity activity) {
+        int tagKey = getViewId(activity, "exo_controller_views");
+        Object tag = parentView.getTag(tagKey);
+        if (tag instanceof ControllerViews) {
+            return (ControllerViews) tag;
+        }
+        ControllerViews views = new ControllerViews(parentView, activity);
+        parentView.setTag(tagKey, views);
+        return views;
+    }
 
-        if (null != textColor) {
-            int intTextColor = Color.parseColor(textColor);
-            if (null != titleView) {
-                titleView.setTextColor(intTextColor);
+    private static void setupButtons(ControllerViews views, JSONObject controller) {
+        if (!views.changed(controller, "controlIcons") && !views.changed(controller, "buttonsColor")) {
+            return;
+        }
+        JSONObject buttonsConfig = controller.optJSONObject("controlIcons");
+        if (null == buttonsConfig) {
+            if (null != views.buttonsLayout) {
+                views.buttonsLayout.setVisibility(View.GONE);
             }
-            if (null != subtitleView) {
-                subtitleView.setTextColor(intTextColor);
+            return;
+        }
+        if (null != views.buttonsLayout) {
+            views.buttonsLayout.setVisibility(View.VISIBLE);
+        }
+
+        String buttonsColor = controller.optString("buttonsColor", null);
+        for (Map.Entry<BUTTON, ImageButton> entry : views.buttons.entrySet()) {
+            String buttonName = entry.getKey().name();
+            ImageButton imageButton = entry.getValue();
+            // Only buttons whose icon or tint differs from what they show now are touched.
+            String state = buttonsConfig.has(buttonName) ? "icon " + buttonsConfig.optString(buttonName) : "tint " + buttonsColor;
+            if (state.equals(views.buttonStates.put(entry.getKey(), state))) {
+                continue;
             }
-            if (null != positionView) {
-                positionView.setTextColor(intTextColor);
+            if (buttonsConfig.has(buttonName)) {
+                imageButton.setColorFilter(Color.TRANSPARENT);
+                String buttonUrl = buttonsConfig.optString(buttonName);
+                if (null == buttonUrl || buttonUrl.equals("null")) { // Again, why is this a String "null"?
+                    // Image is set to null, remove it from view.
+                    imageButton.setVisibility(View.GONE);
+                    removeFromParent(imageButton);
+                }
+                else {
+                    // Loading from external source.
+                    Artwork.loadIcon(imageButton, buttonUrl);
+                }
             }
-            if (null != durationView) {
-                durationView.setTextColor(intTextColor);
+            else {
+                // Using default and tinting.
+                Integer color = parseColor(buttonsColor);
+                if (null != color) {
+                    imageButton.setColorFilter(color);
+                }
             }
         }
-        if(null != streamImage) {
-            Picasso.with(imageView.getContext()).load(streamImage).into(imageView);
-        }
-        if(null != streamTitle) {
-            titleView.setText(streamTitle);
+    }
+
+    private static void setupBar(ControllerViews views, JSONObject controller) {
+        if (views.changed(controller, "textColor")) {
+            Integer textColor = parseColor(controller.optString("textColor", null));
+            if (null != textColor) {
+                for (TextView textView : new TextView[] { views.titleView, views.subtitleView, views.positionView, views.durationView }) {
+                    if (null != textView) {
+                        textView.setTextColor(textColor);
+                    }
+                }
+            }
         }
-        if (null != streamDescription && !streamDescription.equals("null")) { // TODO: Why are we getting string "null" here?
-            subtitleView.setText(streamDescription);
+        if (views.changed(controller, "streamImage")) {
+            String streamImage = controller.optString("streamImage", null);
+            if (null != streamImage && null != views.imageView) {
+                Artwork.loadArtwork(views.imageView, streamImage);
+            }
         }
-        else {
-            subtitleView.setVisibility(View.GONE);
+        if (views.changed(controller, "streamTitle")) {
+            String streamTitle = controller.optString("streamTitle", null);
+            if (null != streamTitle && null != views.titleView) {
+                views.titleView.setText(streamTitle);
+            }
         }
-        if (controller.optBoolean("hideProgress")) {
-            timebarView.setVisibility(View.GONE);
+        if (views.changed(controller, "streamDescription") && null != views.subtitleView) {
+            String streamDescription = controller.optString("streamDescription", null);
+            if (null != streamDescription && !streamDescription.equals("null")) { // TODO: Why are we getting string "null" here?
+                views.subtitleView.setText(streamDescription);
+                views.subtitleView.setVisibility(View.VISIBLE);
+            }
+            else {
+                views.subtitleView.setVisibility(View.GONE);
+            }
         }
-        else {
-            if (controller.optBoolean("hidePosition") && null != positionView) {
-                positionView.setVisibility(View.GONE);
-                ((ViewGroup) positionView.getParent()).removeView(positionView);
+        if ((views.changed(controller, "hideProgress") || views.changed(controller, "hidePosition") || views.changed(controller, "hideDuration"))
+                && null != views.timebarView) {
+            if (controller.optBoolean("hideProgress")) {
+                views.timebarView.setVisibility(View.GONE);
             }
-            if (controller.optBoolean("hideDuration") && null != durationView) {
-                durationView.setVisibility(View.GONE);
-                ((ViewGroup) durationView.getParent()).removeView(durationView);
+            else {
+                views.timebarView.setVisibility(View.VISIBLE);
+                if (controller.optBoolean("hidePosition") && null != views.positionView) {
+                    views.positionView.setVisibility(View.GONE);
+                    removeFromParent(views.positionView);
+                }
+                if (controller.optBoolean("hideDuration") && null != views.durationView) {
+                    views.durationView.setVisibility(View.GONE);
+                    removeFromParent(views.durationView);
+                }
             }
         }
     }
 
-    private static void setupBuffering(StyledPlayerView parentView, Activity activity, JSONObject controller) {
-        String bufferingColor = controller.optString("bufferingColor");
-        ProgressBar bufferingBar = (ProgressBar)findView(parentView, activity, "exo_buffering");
-        if (null != bufferingBar && null != bufferingColor) {
-            bufferingBar.getIndeterminateDrawable().setColorFilter(Color.parseColor(bufferingColor), android.graphics.PorterDuff.Mode.MULTIPLY);
+    private static void setupBuffering(ControllerViews views, JSONObject controller) {
+        if (views.changed(controller, "bufferingColor") && null != views.bufferingBar) {
+            Integer bufferingColor = parseColor(controller.optString("bufferingColor", null));
+            if (null != bufferingColor) {
+                views.bufferingBar.getIndeterminateDrawable().setColorFilter(bufferingColor, android.graphics.PorterDuff.Mode.MULTIPLY);
+            }
         }
     }
 
     public static void setBufferingVisibility(StyledPlayerView parentView, Activity activity, boolean visible) {
-        ProgressBar progressBar = (ProgressBar)findView(parentView, activity, "exo_buffering");
+        ProgressBar progressBar = getControllerViews(parentView, activity).bufferingBar;
         if (null != progressBar) {
             progressBar.setVisibility(visible ? View.VISIBLE : View.GONE);
         }
     }
 
+    // Missing or malformed colors leave the view as it is.
+    private static Integer parseColor(String color) {
+        if (null == color || color.isEmpty()) {
+            return null;
+        }
+        try {
+            return Color.parseColor(color);
+        }
+        catch (IllegalArgumentException e) {
+            Log.w(TAG, "Ignoring invalid color " + color);
+            return null;
+        }
+    }
+
+    private static void removeFromParent(View view) {
+        if (view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+    }
+
     private static View findView(View view, Activity activity, String name) {
-        int viewId = activity.getResources().getIdentifier(name, "id", activity.getPackageName());
-        return view.findViewById(viewId);
+        return view.findViewById(getViewId(activity, name));
+    }
+
+    // Resource ids are resolved by name because the plugin can't use the app's R class, each name is looked up once.
+    private static int getViewId(Activity activity, String name) {
+        Integer viewId = viewIds.get(name);
+        if (null == viewId) {
+            viewId = activity.getResources().getIdentifier(name, "id", activity.getPackageName());
+            viewIds.put(name, viewId);
+        }
+        return viewId;
     }
 
     public static WindowManager.LayoutParams getDialogLayoutParams(Activity activity, Configuration config, Dialog dialog) {
@@ -0,0 +1,155 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.*;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.exoplayer2.database.*;
+import com.google.android.exoplayer2.upstream.*;
+import com.google.android.exoplayer2.upstream.cache.*;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide on-disk media cache shared by all players. Segments and progressive bytes are kept in
+ * a {@link SimpleCache} with LRU eviction, so replays, seeks back and switching back to a recently
+ * watched stream are served from disk instead of the network.
+ */
+public class MediaCache {
+    private static final String DEFAULT_DIRECTORY = "exoplayer";
+
+    private static SimpleCache cache;
+    private static DatabaseProvider databaseProvider;
+    private static final AtomicLong hitBytes = new AtomicLong();
+    private static final AtomicLong missBytes = new AtomicLong();
+
+    private static final CacheDataSource.EventListener cacheEventListener = new CacheDataSource.EventListener() {
+        @Override
+        public void onCachedBytesRead(long cacheSizeBytes, long cachedBytesRead) {
+            hitBytes.addAndGet(cachedBytesRead);
+        }
+
+        @Override
+        public void onCacheIgnored(int reason) {
+            Log.d(Player.TAG, "Cache ignored, reason " + reason);
+        }
+    };
+
+    private static final TransferListener missListener = new TransferListener() {
+        @Override
+        public void onTransferInitializing(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork) {
+        }
+
+        @Override
+        public void onTransferStart(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork) {
+        }
+
+        @Override
+        public void onBytesTransferred(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork, int bytesTransferred) {
+            if (isNetwork) {
+                missBytes.addAndGet(bytesTransferred);
+            }
+        }
+
+        @Override
+        public void onTransferEnd(@NonNull DataSource source, @NonNull DataSpec dataSpec, boolean isNetwork) {
+        }
+    };
+
+    /**
+     * Returns the shared cache, creating it on first use, or null if caching is not enabled in the configuration.
+     * The cache directory and size of the first configuration that enables caching win for the lifetime of the process.
+     */
+    public static synchronized Cache getCache(Context context, Configuration config) {
+        long maxBytes = config.getCacheSize();
+        if (maxBytes <= 0) {
+            return null;
+        }
+        if (null == cache) {
+            File directory = getDirectory(context, config.getCacheDirectory());
+            Log.i(Player.TAG, "Creating media cache in " + directory + " (" + maxBytes + " bytes)");
+            cache = new SimpleCache(directory, new LeastRecentlyUsedCacheEvictor(maxBytes), getDatabaseProvider(context));
+        }
+        return cache;
+    }
+
+    public static synchronized DatabaseProvider getDatabaseProvider(Context context) {
+        if (null == databaseProvider) {
+            databaseProvider = new StandaloneDatabaseProvider(context.getApplicationContext());
+        }
+        return databaseProvider;
+    }
+
+    /**
+     * Wraps the upstream factory so reads go through the cache first. Bytes that still have to come from the network are
+     * counted as misses.
+     */
+    public static DataSource.Factory wrap(Cache cache, DataSource.Factory upstreamFactory) {
+        DataSource.Factory countingFactory = () -> {
+            DataSource dataSource = upstreamFactory.createDataSource();
+            dataSource.addTransferListener(missListener);
+            return dataSource;
+        };
+        return new CacheDataSource.Factory()
+                .setCache(cache)
+                .setUpstreamDataSourceFactory(countingFactory)
+                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR)
+                .setEventListener(cacheEventListener);
+    }
+
+    public static synchronized boolean isEnabled() {
+        return null != cache;
+    }
+
+    public static synchronized long getCacheSpace() {
+        return null != cache ? cache.getCacheSpace() : 0;
+    }
+
+    public static long getHitBytes() {
+        return hitBytes.get();
+    }
+
+    public static long getMissBytes() {
+        return missBytes.get();
+    }
+
+    public static synchronized void release() {
+        if (null != cache) {
+            cache.release();
+            cache = null;
+        }
+    }
+
+    private static File getDirectory(Context context, String directory) {
+        if (null == directory || directory.isEmpty()) {
+            return new File(context.getCacheDir(), DEFAULT_DIRECTORY);
+        }
+        File file = new File(directory);
+        return file.isAbsolute() ? file : new File(context.getCacheDir(), directory);
+    }
+}
@@ -31,18 +31,54 @@ import android.view.*;
 import androidx.annotation.NonNull;
 
 import com.google.android.exoplayer2.*;
+import com.google.android.exoplayer2.offline.Download;
 import com.google.common.collect.ImmutableList;
 
 import java.lang.*;
-import java.lang.Boolean;
-import java.lang.Integer;
 import java.lang.StackTraceElement;
-import java.lang.StringBuffer;
 import java.util.*;
 import org.json.*;
 
+/**
+ * An event or response for the JS side. Values that belong to the player are read when the payload is created, on the
+ * thread that owns the player. The JSON is only built by {@link #toJson()}, which CallbackResponse calls on its sender
+ * thread, so the main thread does not pay for it.
+ */
 public class Payload {
 
+    // Adds the fields of a payload to its JSON. Runs on the sender thread, so it may only use values that were copied
+    // when the payload was created or objects that never change, like Timeline, Tracks and Download.
+    interface Fields {
+        void addTo(JSONObject json);
+    }
+
+    // Numbers and booleans have always been sent as strings, so JS compares them as such (event.isPlaying === "true").
+    // Set from the ExoPlayerTypedEvents preference, which sends them as JSON numbers and booleans instead.
+    private static volatile boolean typedValues;
+
+    private final String eventType;
+    private final Fields fields;
+
+    private Payload(String eventType, Fields fields) {
+        this.eventType = eventType;
+        this.fields = fields;
+    }
+
+    public static void setTypedValues(boolean typed) {
+        typedValues = typed;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        put(json, "eventType", eventType);
+        fields.addTo(json);
+        return json;
+    }
+
     private static String playbackStateToString(int playbackState) {
         String state = "UNKNOWN";
         switch (playbackState) {
@@ -62,130 +98,357 @@ public class Payload {
         return state;
     }
 
-    public static JSONObject startEvent(ExoPlayer player, String audioFocus) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "START_EVENT");
-        map.put("audioFocus", audioFocus);
-        addPlayerState(map, player);
-        return new JSONObject(map);
+    private static String mediaItemTransitionReasonToString(int reason) {
+        String value = "UNKNOWN";
+        switch (reason) {
+            case com.google.android.exoplayer2.Player.MEDIA_ITEM_TRANSITION_REASON_REPEAT:
+                value = "REPEAT";
+                break;
+            case com.google.android.exoplayer2.Player.MEDIA_ITEM_TRANSITION_REASON_AUTO:
+                value = "AUTO";
+                break;
+            case com.google.android.exoplayer2.Player.MEDIA_ITEM_TRANSITION_REASON_SEEK:
+                value = "SEEK";
+                break;
+            case com.google.android.exoplayer2.Player.MEDIA_ITEM_TRANSITION_REASON_PLAYLIST_CHANGED:
+                value = "PLAYLIST_CHANGED";
+                break;
+        }
+        return value;
+    }
+
+    private static String downloadStateToString(int state) {
+        String value = "UNKNOWN";
+        switch (state) {
+            case Download.STATE_QUEUED:
+                value = "QUEUED";
+                break;
+            case Download.STATE_STOPPED:
+                value = "STOPPED";
+                break;
+            case Download.STATE_DOWNLOADING:
+                value = "DOWNLOADING";
+                break;
+            case Download.STATE_COMPLETED:
+                value = "COMPLETED";
+                break;
+            case Download.STATE_FAILED:
+                value = "FAILED";
+                break;
+            case Download.STATE_REMOVING:
+                value = "REMOVING";
+                break;
+            case Download.STATE_RESTARTING:
+                value = "RESTARTING";
+                break;
+        }
+        return value;
+    }
+
+    public static Payload startEvent(ExoPlayer player, String audioFocus, boolean reused, long warmupMs, long savedMs) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("START_EVENT", json -> {
+            put(json, "audioFocus", audioFocus);
+            put(json, "reused", reused);
+            put(json, "preloaded", savedMs != TIME_UNSET);
+            if (savedMs != TIME_UNSET) {
+                put(json, "warmupMs", warmupMs != TIME_UNSET ? warmupMs : null);
+                put(json, "warmupSavedMs", savedMs);
+            }
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload memoryTrimEvent(ExoPlayer player, int level, List<String> actions, long resumePositionMs) {
+        PlayerState state = PlayerState.of(player);
+        List<String> actionList = new ArrayList<>(actions);
+        return new Payload("MEMORY_TRIM_EVENT", json -> {
+            put(json, "level", level);
+            put(json, "actions", new JSONArray(actionList));
+            put(json, "released", null == player);
+            if (resumePositionMs != TIME_UNSET) {
+                put(json, "resumePosition", resumePositionMs);
+            }
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload restoredEvent(ExoPlayer player) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("RESTORED_EVENT", json -> addPlayerState(json, state));
+    }
+
+    public static Payload warmupEvent(long warmupMs, long buildMs, long codecMs, long dnsMs) {
+        return new Payload("WARMUP_EVENT", json -> {
+            put(json, "warmupMs", warmupMs);
+            put(json, "buildMs", buildMs);
+            put(json, "codecMs", codecMs);
+            put(json, "dnsMs", dnsMs);
+        });
+    }
+
+    public static Payload firstFrameEvent(ExoPlayer player, long firstFrameMs, boolean reused) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("FIRST_FRAME_EVENT", json -> {
+            put(json, "firstFrameMs", firstFrameMs);
+            put(json, "reused", reused);
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload stopEvent(ExoPlayer player) {
+        return new Payload("STOP_EVENT", json -> {});
     }
 
-    public static JSONObject stopEvent(ExoPlayer player) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "STOP_EVENT");
-        return new JSONObject(map);
+    public static Payload evictedEvent(ExoPlayer player) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("EVICTED_EVENT", json -> addPlayerState(json, state));
     }
 
-    public static JSONObject keyEvent(KeyEvent event) {
+    public static Payload configErrorEvent(List<String> errors) {
+        List<String> errorList = new ArrayList<>(errors);
+        return new Payload("CONFIG_ERROR_EVENT", json -> put(json, "errors", new JSONArray(errorList)));
+    }
+
+    public static Payload configUpdatedEvent(ExoPlayer player, Collection<String> changed, Collection<String> ignored, List<String> errors) {
+        PlayerState state = PlayerState.of(player);
+        List<String> changedList = new ArrayList<>(changed);
+        List<String> ignoredList = new ArrayList<>(ignored);
+        List<String> errorList = new ArrayList<>(errors);
+        return new Payload("CONFIG_UPDATED_EVENT", json -> {
+            put(json, "changed", new JSONArray(changedList));
+            put(json, "ignored", new JSONArray(ignoredList));
+            put(json, "errors", new JSONArray(errorList));
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload failoverEvent(ExoPlayer player, String url) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("FAILOVER_EVENT", json -> {
+            put(json, "url", url);
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload keyEvent(KeyEvent event) {
         int eventAction = event.getAction();
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "KEY_EVENT");
-        map.put("eventAction", eventAction == KeyEvent.ACTION_DOWN ? "ACTION_DOWN" : eventAction == KeyEvent.ACTION_UP ? "ACTION_UP" : "" + eventAction);
-        map.put("eventKeycode", KeyEvent.keyCodeToString(event.getKeyCode()));
-        return new JSONObject(map);
+        String keycode = KeyEvent.keyCodeToString(event.getKeyCode());
+        return new Payload("KEY_EVENT", json -> {
+            put(json, "eventAction", eventAction == KeyEvent.ACTION_DOWN ? "ACTION_DOWN" : eventAction == KeyEvent.ACTION_UP ? "ACTION_UP" : "" + eventAction);
+            put(json, "eventKeycode", keycode);
+        });
     }
 
-    public static JSONObject touchEvent(MotionEvent event) {
+    public static Payload touchEvent(MotionEvent event) {
         int eventAction = event.getAction();
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "TOUCH_EVENT");
-        map.put("eventAction", eventAction == MotionEvent.ACTION_DOWN ? "ACTION_DOWN" : eventAction == MotionEvent.ACTION_UP ? "ACTION_UP" : eventAction == MotionEvent.ACTION_MOVE ? "ACTION_MOVE" : "" + eventAction);
-        map.put("eventAxisX", Float.toString(event.getX()));
-        map.put("eventAxisY", Float.toString(event.getY()));
-        return new JSONObject(map);
-    }
-
-    public static JSONObject loadingEvent(ExoPlayer player, boolean loading) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "LOADING_EVENT");
-        map.put("loading", Boolean.toString(loading));
-        addPlayerState(map, player);
-        return new JSONObject(map);
-    }
-
-    public static JSONObject isPlayingChanged(ExoPlayer player) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "IS_PLAYING_CHANGED");
-        addPlayerState(map, player);
-        return new JSONObject(map);
-    }
-
-    public static JSONObject stateEvent(ExoPlayer player, int playbackState, boolean controllerVisible) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "STATE_CHANGED_EVENT");
-        addPlayerState(map, player);
-        map.put("playbackState", playbackStateToString(playbackState));
-        map.put("controllerVisible", Boolean.toString(controllerVisible));
-        return new JSONObject(map);
-    }
-
-    public static JSONObject positionDiscontinuityEvent(ExoPlayer player, int reason) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "POSITION_DISCONTINUITY_EVENT");
-        map.put("reason", Integer.toString(reason));
-        addPlayerState(map, player);
-        return new JSONObject(map);
-    }
-
-    public static JSONObject seekEvent(ExoPlayer player, long offset) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "SEEK_EVENT");
-        map.put("offset", Long.toString(offset));
-        addPlayerState(map, player);
-        return new JSONObject(map);
-    }
-
-    public static JSONObject timelineChangedEvent(ExoPlayer player, Timeline timeline) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "TIMELINE_EVENT");
-        int periodCount = timeline.getPeriodCount();
-        for (int i = 0; i < periodCount; i++) {
+        float x = event.getX();
+        float y = event.getY();
+        return new Payload("TOUCH_EVENT", json -> {
+            put(json, "eventAction", eventAction == MotionEvent.ACTION_DOWN ? "ACTION_DOWN" : eventAction == MotionEvent.ACTION_UP ? "ACTION_UP" : eventAction == MotionEvent.ACTION_MOVE ? "ACTION_MOVE" : "" + eventAction);
+            put(json, "eventAxisX", x);
+            put(json, "eventAxisY", y);
+        });
+    }
+
+    public static Payload loadingEvent(ExoPlayer player, boolean loading) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("LOADING_EVENT", json -> {
+            put(json, "loading", loading);
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload isPlayingChanged(ExoPlayer player) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("IS_PLAYING_CHANGED", json -> addPlayerState(json, state));
+    }
+
+    public static Payload stateEvent(ExoPlayer player, int playbackState, boolean controllerVisible) {
+        PlayerState state = PlayerState.of(player);
+        long bandwidthEstimate = BandwidthMeterProvider.getEstimate();
+        return new Payload("STATE_CHANGED_EVENT", json -> {
+            addPlayerState(json, state);
+            put(json, "playbackState", playbackStateToString(playbackState));
+            put(json, "controllerVisible", controllerVisible);
+            put(json, "bandwidthEstimate", bandwidthEstimate);
+        });
+    }
+
+    public static Payload progressEvent(ExoPlayer player) {
+        long position = player.getCurrentPosition();
+        long bufferedPosition = player.getBufferedPosition();
+        long duration = player.getDuration();
+        return new Payload("PROGRESS_EVENT", json -> {
+            put(json, "position", position);
+            put(json, "bufferedPosition", bufferedPosition);
+            put(json, "duration", duration);
+        });
+    }
+
+    public static Payload positionDiscontinuityEvent(ExoPlayer player, int reason) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("POSITION_DISCONTINUITY_EVENT", json -> {
+            put(json, "reason", reason);
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload seekEvent(ExoPlayer player, long offset) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("SEEK_EVENT", json -> {
+            put(json, "offset", offset);
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload coalescedSeekEvent(long offset) {
+        return new Payload("SEEK_EVENT", json -> {
+            put(json, "offset", offset);
+            put(json, "coalesced", true);
+        });
+    }
+
+    public static Payload timelineChangedEvent(ExoPlayer player, Timeline timeline) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("TIMELINE_EVENT", json -> {
+            int periodCount = timeline.getPeriodCount();
             Timeline.Period period = new Timeline.Period();
-            timeline.getPeriod(i, period);
-            map.put("periodDuration" + i, Long.toString(period.getDurationMs()));
-            map.put("periodWindowPosition" + i, Long.toString(period.getPositionInWindowMs()));
-        }
-        int firstWindow = timeline.getFirstWindowIndex(false);
-        if (firstWindow > -1) {
-            Timeline.Window window = new Timeline.Window();
-            timeline.getWindow(firstWindow, window);
-            map.put("positionInFirstPeriod", Long.toString(window.getPositionInFirstPeriodMs()));
+            for (int i = 0; i < periodCount; i++) {
+                timeline.getPeriod(i, period);
+                put(json, "periodDuration" + i, period.getDurationMs());
+                put(json, "periodWindowPosition" + i, period.getPositionInWindowMs());
+            }
+            int firstWindow = timeline.getFirstWindowIndex(false);
+            if (firstWindow > -1) {
+                Timeline.Window window = new Timeline.Window();
+                timeline.getWindow(firstWindow, window);
+                put(json, "positionInFirstPeriod", window.getPositionInFirstPeriodMs());
+            }
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload mediaItemTransitionEvent(ExoPlayer player, MediaItem mediaItem, int reason) {
+        PlayerState state = PlayerState.of(player);
+        int index = null != player ? player.getCurrentMediaItemIndex() : 0;
+        int itemCount = null != player ? player.getMediaItemCount() : 0;
+        return new Payload("MEDIA_ITEM_TRANSITION_EVENT", json -> {
+            put(json, "reason", mediaItemTransitionReasonToString(reason));
+            if (null != mediaItem) {
+                put(json, "mediaId", mediaItem.mediaId);
+            }
+            if (null != player) {
+                put(json, "index", index);
+                put(json, "itemCount", itemCount);
+            }
+            addPlayerState(json, state);
+        });
+    }
+
+    public static Payload statsEvent(long startupTimeMs, int rebufferCount, long rebufferTimeMs, long playTimeMs, int droppedFrames,
+                                     long bytesLoaded, int formatChanges, int currentBitrate, int[] bitrates, long[] bitrateTimeMs, int bitrateCount) {
+        int[] bitrateList = Arrays.copyOf(bitrates, bitrateCount);
+        long[] timeMsList = Arrays.copyOf(bitrateTimeMs, bitrateCount);
+        return new Payload("STATS_EVENT", json -> {
+            put(json, "startupTimeMs", startupTimeMs);
+            put(json, "rebufferCount", rebufferCount);
+            put(json, "rebufferTimeMs", rebufferTimeMs);
+            put(json, "playTimeMs", playTimeMs);
+            put(json, "droppedFrames", droppedFrames);
+            put(json, "bytesLoaded", bytesLoaded);
+            put(json, "formatChanges", formatChanges);
+            put(json, "currentBitrate", currentBitrate);
+            JSONArray timeAtBitrate = new JSONArray();
+            for (int i = 0; i < bitrateList.length; i++) {
+                JSONObject entry = new JSONObject();
+                put(entry, "bitrate", bitrateList[i]);
+                put(entry, "timeMs", timeMsList[i]);
+                timeAtBitrate.put(entry);
+            }
+            put(json, "timeAtBitrate", timeAtBitrate);
+        });
+    }
+
+    public static Payload downloadEvent(Download download) {
+        return new Payload("DOWNLOAD_EVENT", json -> addDownload(json, download));
+    }
+
+    public static Payload downloadProgressEvent(Download download) {
+        return new Payload("DOWNLOAD_PROGRESS_EVENT", json -> {
+            put(json, "id", download.request.id);
+            put(json, "percentDownloaded", download.getPercentDownloaded());
+            put(json, "bytesDownloaded", download.getBytesDownloaded());
+        });
+    }
+
+    public static Payload downloadQuotaEvent(long usedBytes, long quotaBytes) {
+        return new Payload("DOWNLOAD_QUOTA_EXCEEDED_EVENT", json -> {
+            put(json, "usedBytes", usedBytes);
+            put(json, "quotaBytes", quotaBytes);
+        });
+    }
+
+    public static Payload downloadsEvent(List<Download> downloads, long usedBytes, long quotaBytes) {
+        return new Payload("DOWNLOADS", json -> {
+            JSONArray downloadArray = new JSONArray();
+            for (Download download : downloads) {
+                JSONObject downloadJson = new JSONObject();
+                addDownload(downloadJson, download);
+                downloadArray.put(downloadJson);
+            }
+            put(json, "downloads", downloadArray);
+            put(json, "usedBytes", usedBytes);
+            put(json, "quotaBytes", quotaBytes);
+        });
+    }
+
+    private static void addDownload(JSONObject json, Download download) {
+        put(json, "id", download.request.id);
+        put(json, "url", download.request.uri.toString());
+        put(json, "state", downloadStateToString(download.state));
+        put(json, "percentDownloaded", download.getPercentDownloaded());
+        put(json, "bytesDownloaded", download.getBytesDownloaded());
+        put(json, "contentLength", download.contentLength);
+        put(json, "stopReason", download.stopReason);
+        if (download.state == Download.STATE_FAILED) {
+            put(json, "failureReason", download.failureReason);
         }
-        addPlayerState(map, player);
-        return new JSONObject(map);
     }
 
-    public static JSONObject audioFocusEvent(ExoPlayer player, String state) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "AUDIO_FOCUS_EVENT");
-        map.put("audioFocus", state);
-        addPlayerState(map, player);
-        return new JSONObject(map);
+    public static Payload audioFocusEvent(ExoPlayer player, String audioFocus) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("AUDIO_FOCUS_EVENT", json -> {
+            put(json, "audioFocus", audioFocus);
+            addPlayerState(json, state);
+        });
     }
 
-    public static JSONObject playerErrorEvent(ExoPlayer player, PlaybackException origin, String message) {
+    public static Payload playerErrorEvent(ExoPlayer player, PlaybackException origin, String message) {
         int type = 0;
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("eventType", "PLAYER_ERROR_EVENT");
+        String errorType = null;
+        String stackTraceString = null;
+        String errorMessage = null;
 
-        if (origin instanceof ExoPlaybackException exoOrigin) {
+        if (origin instanceof ExoPlaybackException) {
+            ExoPlaybackException exoOrigin = (ExoPlaybackException) origin;
             Throwable error = origin;
 
             type = exoOrigin.type;
             if (type == ExoPlaybackException.TYPE_RENDERER) {
                 error = exoOrigin.getRendererException();
-                map.put("errorType", "RENDERER");
+                errorType = "RENDERER";
             }
             else if (type == ExoPlaybackException.TYPE_SOURCE) {
                 error = exoOrigin.getSourceException();
-                map.put("errorType", "SOURCE");
+                errorType = "SOURCE";
             }
             else if (type == ExoPlaybackException.TYPE_UNEXPECTED) {
                 error = exoOrigin.getUnexpectedException();
-                map.put("errorType", "UNEXPECTED");
+                errorType = "UNEXPECTED";
             }
             else {
-                map.put("errorType", "UNKNOWN");
+                errorType = "UNKNOWN";
             }
 
             while (null != error.getCause()) {
@@ -197,74 +460,176 @@ public class Payload {
             for (StackTraceElement elem : st) {
                 stackTrace.append(elem.getClassName()).append("#").append(elem.getMethodName()).append("@").append(elem.getLineNumber()).append(elem.isNativeMethod() ? " NATIVE" : "").append("\n");
             }
-            map.put("stackTrace", stackTrace.toString());
-            map.put("errorMessage", error.getMessage());
-        }
-        if (null != message) {
-            map.put("customMessage", message);
+            stackTraceString = stackTrace.toString();
+            errorMessage = error.getMessage();
         }
 
-        return new JSONObject(map);
-    }
-    public static JSONObject tracksChanged(ExoPlayer player, Tracks tracks) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("eventType", "TRACKS_CHANGED");
-        ImmutableList<Tracks. Group> groups = tracks.getGroups();
-        ArrayList<Map<String, Object>> arr = new ArrayList<>();
-        for (int i = 0; i < groups.size(); i++) {
-            Tracks.Group group = groups.get(i);
-            String type = switch (group.getType()){
-                case TRACK_TYPE_TEXT -> "Text";
-                case TRACK_TYPE_AUDIO->"Audio";
-                default -> null;
-            };
-            if (null != type) {
-                for (int j = 0; j < group.length; j++) {
-                    if(FORMAT_HANDLED == group.getTrackSupport(j)) {
-                        Map<String, Object> trackMap = getTrackMap(group, i, j, type);
-                        arr.add(trackMap);
+        final String finalErrorType = errorType;
+        final String finalStackTrace = stackTraceString;
+        final String finalErrorMessage = errorMessage;
+        return new Payload("PLAYER_ERROR_EVENT", json -> {
+            if (null != finalErrorType) {
+                put(json, "errorType", finalErrorType);
+                put(json, "stackTrace", finalStackTrace);
+                put(json, "errorMessage", finalErrorMessage);
+            }
+            if (null != message) {
+                put(json, "customMessage", message);
+            }
+        });
+    }
+    public static Payload tracksChanged(ExoPlayer player, Tracks tracks) {
+        PlayerState state = PlayerState.of(player);
+        return new Payload("TRACKS_CHANGED", json -> {
+            ImmutableList<Tracks. Group> groups = tracks.getGroups();
+            JSONArray arr = new JSONArray();
+            for (int i = 0; i < groups.size(); i++) {
+                Tracks.Group group = groups.get(i);
+                String type = null;
+                switch (group.getType()) {
+                    case TRACK_TYPE_TEXT:
+                        type = "Text";
+                        break;
+                    case TRACK_TYPE_AUDIO:
+                        type = "Audio";
+                        break;
+                }
+                if (null != type) {
+                    for (int j = 0; j < group.length; j++) {
+                        if(FORMAT_HANDLED == group.getTrackSupport(j)) {
+                            arr.put(getTrackJson(group, i, j, type));
+                        }
                     }
                 }
+
             }
+            put(json, "tracks", arr);
+            addPlayerState(json, state);
+        });
+    }
+
+    private static @NonNull JSONObject getTrackJson(Tracks.Group group, int groupIndex, int j, String type) {
+        JSONObject trackJson = new JSONObject();
+        Format format = group.getTrackFormat(j);
+        putTyped(trackJson, "type", type);
+        putTyped(trackJson, "codecs", format.codecs);
+        putTyped(trackJson, "bitrate", format.bitrate);
+        putTyped(trackJson, "width", format.width);
+        putTyped(trackJson, "height", format.height);
+        putTyped(trackJson, "frameRate", format.frameRate);
+        putTyped(trackJson, "rotationDegrees", format.rotationDegrees);
+        putTyped(trackJson, "selectionFlags", format.selectionFlags);
+        putTyped(trackJson, "channelCount", format.channelCount);
+        putTyped(trackJson, "sampleRate", format.sampleRate);
+        putTyped(trackJson, "language", format.language);
+        putTyped(trackJson, "label", format.label);
+        putTyped(trackJson, "id", format.id);
+        putTyped(trackJson, "mimeType", format.sampleMimeType);
+        putTyped(trackJson, "isSelected", group.isTrackSelected(j));
+        putTyped(trackJson, "index", j);
+        putTyped(trackJson, "groupIndex", groupIndex);
+        return trackJson;
+    }
 
+    private static void addPlayerState(JSONObject json, PlayerState state) {
+        if (null != state) {
+            put(json, "duration", state.duration);
+            put(json, "position", state.position);
+            put(json, "playWhenReady", state.playWhenReady);
+            put(json, "playbackState", playbackStateToString(state.playbackState));
+            put(json, "bufferPercentage", state.bufferPercentage);
+            put(json, "bufferedPosition", state.bufferedPosition);
+            put(json, "totalBufferedDuration", state.totalBufferedDuration);
+            put(json, "isPlaying", state.isPlaying);
+            if (state.isLive) {
+                put(json, "isLive", true);
+                put(json, "liveOffset", state.liveOffset != TIME_UNSET ? state.liveOffset : null);
+                put(json, "liveEdgeDistance", state.duration != TIME_UNSET ? Math.max(0, state.duration - state.position) : null);
+                put(json, "playbackSpeed", state.playbackSpeed);
+            }
+            if (state.cacheEnabled) {
+                put(json, "cacheSize", state.cacheSize);
+                put(json, "cacheHitBytes", state.cacheHitBytes);
+                put(json, "cacheMissBytes", state.cacheMissBytes);
+            }
         }
-        map.put("tracks", arr);
-        addPlayerState(map, player);
-        return new JSONObject(map);
     }
 
-    private static @NonNull Map<String, Object> getTrackMap(Tracks.Group group, int groupIndex, int j, String type) {
-        Map<String, Object> trackMap = new HashMap<>();
-        Format format = group.getTrackFormat(j);
-        trackMap.put("type", type);
-        trackMap.put("codecs", format.codecs);
-        trackMap.put("bitrate", format.bitrate);
-        trackMap.put("width", format.width);
-        trackMap.put("height", format.height);
-        trackMap.put("frameRate", format.frameRate);
-        trackMap.put("rotationDegrees", format.rotationDegrees);
-        trackMap.put("selectionFlags", format.selectionFlags);
-        trackMap.put("channelCount", format.channelCount);
-        trackMap.put("sampleRate", format.sampleRate);
-        trackMap.put("language", format.language);
-        trackMap.put("isSelected", group.isTrackSelected(j));
-        trackMap.put("index", j);
-        trackMap.put("groupIndex", groupIndex);
-        return trackMap;
-    }
-
-    private static  void addPlayerState(Map<String, Object> map, ExoPlayer player) {
-        if (null != player) {
+    public static Payload addCommandStats(Payload stats, int commandCount, long commandTimeMs, long maxCommandTimeMs, String slowestCommand) {
+        return new Payload(stats.eventType, json -> {
+            stats.fields.addTo(json);
+            put(json, "commandCount", commandCount);
+            put(json, "commandTimeMs", commandTimeMs);
+            put(json, "maxCommandTimeMs", maxCommandTimeMs);
+            put(json, "slowestCommand", slowestCommand);
+        });
+    }
+
+    private static void put(JSONObject json, String name, Object value) {
+        if (!typedValues && (value instanceof Number || value instanceof Boolean)) {
+            value = value.toString();
+        }
+        putTyped(json, name, value);
+    }
+
+    // Track fields have always been sent typed, whatever the preference. Nulls are kept as JSON null.
+    private static void putTyped(JSONObject json, String name, Object value) {
+        try {
+            json.put(name, null != value ? value : JSONObject.NULL);
+        }
+        catch (JSONException ex) {
+            Log.e(Player.TAG, "Error adding " + name + " to payload", ex);
+        }
+    }
+
+    // The player values shared by most events, read in one go on the thread that owns the player.
+    private static final class PlayerState {
+        long duration;
+        long position;
+        boolean playWhenReady;
+        int playbackState;
+        int bufferPercentage;
+        long bufferedPosition;
+        long totalBufferedDuration;
+        boolean isPlaying;
+        boolean isLive;
+        long liveOffset;
+        float playbackSpeed;
+        boolean cacheEnabled;
+        long cacheSize;
+        long cacheHitBytes;
+        long cacheMissBytes;
+
+        static PlayerState of(ExoPlayer player) {
+            if (null == player) {
+                return null;
+            }
             try {
-                map.put("duration", Long.toString(player.getDuration()));
-                map.put("position", Long.toString(player.getCurrentPosition()));
-                map.put("playWhenReady", Boolean.toString(player.getPlayWhenReady()));
-                map.put("playbackState", playbackStateToString(player.getPlaybackState()));
-                map.put("bufferPercentage", Integer.toString(player.getBufferedPercentage()));
-                map.put("isPlaying", Boolean.toString(player.isPlaying()));
+                PlayerState state = new PlayerState();
+                state.duration = player.getDuration();
+                state.position = player.getCurrentPosition();
+                state.playWhenReady = player.getPlayWhenReady();
+                state.playbackState = player.getPlaybackState();
+                state.bufferPercentage = player.getBufferedPercentage();
+                state.bufferedPosition = player.getBufferedPosition();
+                state.totalBufferedDuration = player.getTotalBufferedDuration();
+                state.isPlaying = player.isPlaying();
+                state.isLive = player.isCurrentMediaItemLive();
+                if (state.isLive) {
+                    state.liveOffset = player.getCurrentLiveOffset();
+                    state.playbackSpeed = player.getPlaybackParameters().speed;
+                }
+                state.cacheEnabled = MediaCache.isEnabled();
+                if (state.cacheEnabled) {
+                    state.cacheSize = MediaCache.getCacheSpace();
+                    state.cacheHitBytes = MediaCache.getHitBytes();
+                    state.cacheMissBytes = MediaCache.getMissBytes();
+                }
+                return state;
             }
             catch(Exception ex) {
                 Log.e(Player.TAG, "Error adding player state", ex);
+                return null;
             }
         }
     }
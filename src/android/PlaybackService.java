@@ -0,0 +1,220 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.app.Notification;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.graphics.Bitmap;
+import android.os.IBinder;
+import android.support.v4.media.session.MediaSessionCompat;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.content.ContextCompat;
+
+import com.google.android.exoplayer2.ExoPlayer;
+import com.google.android.exoplayer2.ext.mediasession.MediaSessionConnector;
+import com.google.android.exoplayer2.ui.PlayerNotificationManager;
+import com.google.android.exoplayer2.util.NotificationUtil;
+import com.google.android.exoplayer2.util.Util;
+
+import org.json.JSONObject;
+
+/**
+ * Foreground service that keeps an audio only player going while the app is in the background. It shows a media
+ * notification with the controller's streamTitle and streamDescription and connects the player to a media session,
+ * so headset buttons, the lock screen and Bluetooth devices control it. Only one player at a time is attached.
+ */
+public class PlaybackService extends Service {
+    private static final String CHANNEL_ID = "exoplayer_playback";
+    private static final int NOTIFICATION_ID = 0xE0E0;
+
+    private static ExoPlayer player;
+    private static JSONObject controller;
+    private static PlaybackService instance;
+
+    private MediaSessionCompat mediaSession;
+    private MediaSessionConnector sessionConnector;
+    private PlayerNotificationManager notificationManager;
+
+    /**
+     * Attaches the player to the service, starting the service when it isn't running. Must be called on the main
+     * thread.
+     */
+    public static void start(Context context, ExoPlayer exoPlayer, JSONObject streamController) {
+        player = exoPlayer;
+        controller = streamController;
+        if (null != instance) {
+            instance.attach();
+        }
+        else {
+            ContextCompat.startForegroundService(context, new Intent(context, PlaybackService.class));
+        }
+    }
+
+    /**
+     * Updates the notification text when the attached player gets a new controller configuration.
+     */
+    public static void setController(ExoPlayer exoPlayer, JSONObject streamController) {
+        if (null != exoPlayer && exoPlayer == player) {
+            controller = streamController;
+            if (null != instance) {
+                instance.notificationManager.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Stops the service if the given player is the one attached to it.
+     */
+    public static void stop(Context context, ExoPlayer exoPlayer) {
+        if (null != exoPlayer && exoPlayer == player) {
+            player = null;
+            controller = null;
+            context.stopService(new Intent(context, PlaybackService.class));
+        }
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        instance = this;
+        mediaSession = new MediaSessionCompat(this, Player.TAG);
+        mediaSession.setActive(true);
+        sessionConnector = new MediaSessionConnector(mediaSession);
+        NotificationUtil.createNotificationChannel(this, CHANNEL_ID, getStringId("exo_playback_channel_name"), 0, NotificationUtil.IMPORTANCE_LOW);
+        notificationManager = new PlayerNotificationManager.Builder(this, NOTIFICATION_ID, CHANNEL_ID)
+                .setMediaDescriptionAdapter(descriptionAdapter)
+                .setNotificationListener(notificationListener)
+                .build();
+        notificationManager.setMediaSessionToken(mediaSession.getSessionToken());
+        notificationManager.setUseNextAction(false);
+        notificationManager.setUsePreviousAction(false);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        // The media notification is posted asynchronously, a placeholder keeps the foreground service deadline.
+        startInForeground(new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setSmallIcon(com.google.android.exoplayer2.ui.R.drawable.exo_notification_small_icon)
+                .setContentTitle(getContentTitle())
+                .setSilent(true)
+                .build());
+        attach();
+        return START_NOT_STICKY;
+    }
+
+    @Override
+    public void onDestroy() {
+        instance = null;
+        notificationManager.setPlayer(null);
+        sessionConnector.setPlayer(null);
+        mediaSession.setActive(false);
+        mediaSession.release();
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    private void attach() {
+        if (null == player) {
+            stopSelf();
+            return;
+        }
+        sessionConnector.setPlayer(player);
+        notificationManager.setPlayer(player);
+    }
+
+    private void startInForeground(Notification notification) {
+        if (Util.SDK_INT >= 29) {
+            startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_MEDIA_PLAYBACK);
+        }
+        else {
+            startForeground(NOTIFICATION_ID, notification);
+        }
+    }
+
+    private String getContentTitle() {
+        return null != controller ? controller.optString("streamTitle", "") : "";
+    }
+
+    private int getStringId(String name) {
+        return getResources().getIdentifier(name, "string", getPackageName());
+    }
+
+    private final PlayerNotificationManager.MediaDescriptionAdapter descriptionAdapter = new PlayerNotificationManager.MediaDescriptionAdapter() {
+        @Override
+        public CharSequence getCurrentContentTitle(com.google.android.exoplayer2.Player player) {
+            return getContentTitle();
+        }
+
+        @Nullable
+        @Override
+        public CharSequence getCurrentContentText(com.google.android.exoplayer2.Player player) {
+            return null != controller ? controller.optString("streamDescription", null) : null;
+        }
+
+        @Nullable
+        @Override
+        public PendingIntent createCurrentContentIntent(com.google.android.exoplayer2.Player player) {
+            Intent intent = getPackageManager().getLaunchIntentForPackage(getPackageName());
+            if (null == intent) {
+                return null;
+            }
+            return PendingIntent.getActivity(PlaybackService.this, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT | (Util.SDK_INT >= 23 ? PendingIntent.FLAG_IMMUTABLE : 0));
+        }
+
+        @Nullable
+        @Override
+        public Bitmap getCurrentLargeIcon(com.google.android.exoplayer2.Player player, PlayerNotificationManager.BitmapCallback callback) {
+            return null;
+        }
+    };
+
+    private final PlayerNotificationManager.NotificationListener notificationListener = new PlayerNotificationManager.NotificationListener() {
+        @Override
+        public void onNotificationPosted(int notificationId, Notification notification, boolean ongoing) {
+            if (ongoing) {
+                startInForeground(notification);
+            }
+            else {
+                // Paused: the notification stays, but the system may stop the service.
+                stopForeground(false);
+            }
+        }
+
+        @Override
+        public void onNotificationCancelled(int notificationId, boolean dismissedByUser) {
+            stopSelf();
+        }
+    };
+}
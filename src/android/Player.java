@@ -25,6 +25,7 @@ package co.frontyard.cordova.plugin.exoplayer;
 
 import static com.google.android.exoplayer2.C.TRACK_TYPE_AUDIO;
 import static com.google.android.exoplayer2.C.TRACK_TYPE_TEXT;
+import static com.google.android.exoplayer2.C.WAKE_MODE_LOCAL;
 import static com.google.android.exoplayer2.C.WAKE_MODE_NETWORK;
 import com.google.common.collect.ImmutableList;
 
@@ -34,6 +35,7 @@ import android.app.*;
 import android.content.*;
 import android.media.*;
 import android.net.*;
+import android.os.*;
 import android.view.*;
 import android.webkit.WebView;
 import android.widget.*;
@@ -48,20 +50,28 @@ import com.google.android.exoplayer2.source.dash.*;
 import com.google.android.exoplayer2.source.hls.*;
 import com.google.android.exoplayer2.source.smoothstreaming.*;
 import com.google.android.exoplayer2.trackselection.TrackSelectionOverride;
+import com.google.android.exoplayer2.trackselection.TrackSelectionParameters;
 import com.google.android.exoplayer2.ui.*;
 import com.google.android.exoplayer2.upstream.*;
+import com.google.android.exoplayer2.upstream.cache.Cache;
 import com.google.android.exoplayer2.util.*;
 import com.google.android.exoplayer2.Player.PositionInfo;
 import java.lang.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.cordova.*;
 import org.json.*;
 
 public class Player {
     public static final String TAG = "ExoPlayerPlugin";
+    // Settings that only a new player can pick up, updateConfig leaves them alone.
+    private static final Set<String> FIXED_SETTINGS = Set.of("id", "url", "inlineView", "audioOnly", "backgroundService", "cacheSize", "cacheDirectory");
     private final Activity activity;
-    private final CallbackContext callbackContext;
-    private final Configuration config;
+    private CallbackContext callbackContext;
+    private Configuration config;
     private Dialog dialog;
     private ExoPlayer exoPlayer;
     private StyledPlayerView exoView;
@@ -71,19 +81,44 @@ public class Player {
     private AudioManager audioManager;
     private ViewGroup parentLayout;
     private Tracks lastSeenTracks;
+    private DefaultBandwidthMeter bandwidthMeter;
+    private AdjustableLoadControl loadControl;
+    private Failover failover;
+    private Warmup warmup;
+    private String audioFocusString;
+    private long showTimeMs;
+    private boolean reused = false;
+    private CallbackResponse events;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private int progressIntervalMs;
+    private boolean inBackground = false;
+    private boolean seekWindowOpen = false;
+    private long pendingSeekMs = C.TIME_UNSET;
+    // Set while buffers are shrunk for memory pressure, and for a player released under it, where to pick up again.
+    private boolean memoryTrimmed = false;
+    private List<MediaItem> resumeItems;
+    private int resumeIndex;
+    private long resumePositionMs = C.TIME_UNSET;
+    private int maxVideoBitrate;
+    private int maxVideoFrameRate;
+    private final StatsCollector stats = new StatsCollector();
     public Player(Configuration config, Activity activity, CallbackContext callbackContext, CordovaWebView webView) {
         this.config = config;
         this.activity = activity;
         this.callbackContext = callbackContext;
         this.webView = webView;
+        this.events = new CallbackResponse(callbackContext, config.getEventBatchInterval());
+        this.progressIntervalMs = config.getProgressInterval();
+        this.maxVideoBitrate = config.getMaxVideoBitrate();
+        this.maxVideoFrameRate = config.getMaxVideoFrameRate();
         this.audioManager = (AudioManager) activity.getSystemService(Context.AUDIO_SERVICE);
     }
 
     private ExoPlayer.Listener playerEventListener = new ExoPlayer.Listener() {
         @Override
         public void onIsLoadingChanged(boolean isLoading) {
-            JSONObject payload = Payload.loadingEvent(Player.this.exoPlayer, isLoading);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.loadingEvent(Player.this.exoPlayer, isLoading);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
         }
 
         @Override
@@ -95,21 +130,22 @@ public class Player {
         public void onTracksChanged(@NonNull Tracks tracks) {
             if(lastSeenTracks != tracks) {
                 lastSeenTracks = tracks;
-                JSONObject payload = Payload.tracksChanged(Player.this.exoPlayer, tracks);
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.tracksChanged(Player.this.exoPlayer, tracks);
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
         }
 
         @Override
         public void onPlayerError(@NonNull PlaybackException error) {
-            JSONObject payload = Payload.playerErrorEvent(Player.this.exoPlayer, error, null);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.ERROR, payload, true);
+            Payload payload = Payload.playerErrorEvent(Player.this.exoPlayer, error, null);
+            Player.this.events.send(PluginResult.Status.ERROR, payload, true);
         }
 
         @Override
         public void onIsPlayingChanged(boolean isPlaying) {
-            JSONObject payload = Payload.isPlayingChanged(Player.this.exoPlayer);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.isPlayingChanged(Player.this.exoPlayer);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+            scheduleProgress();
         }
 
         @Override
@@ -117,14 +153,14 @@ public class Player {
             if (config.getShowBuffering()) {
                 LayoutProvider.setBufferingVisibility(exoView, activity, playbackState == ExoPlayer.STATE_BUFFERING);
             }
-            JSONObject payload = Payload.stateEvent(Player.this.exoPlayer, playbackState, Player.this.controllerVisibility == View.VISIBLE);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.stateEvent(Player.this.exoPlayer, playbackState, Player.this.controllerVisibility == View.VISIBLE);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
         }
 
         @Override
         public void onPositionDiscontinuity(@NonNull PositionInfo oldPosition, @NonNull PositionInfo newPosition, int reason) {
-            JSONObject payload = Payload.positionDiscontinuityEvent(Player.this.exoPlayer, reason);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.positionDiscontinuityEvent(Player.this.exoPlayer, reason);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
         }
 
         @Override
@@ -136,10 +172,56 @@ public class Player {
         public void onShuffleModeEnabledChanged(boolean shuffleModeEnabled) {
         }
 
+        @Override
+        public void onMediaItemTransition(MediaItem mediaItem, int reason) {
+            Payload payload = Payload.mediaItemTransitionEvent(Player.this.exoPlayer, mediaItem, reason);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+        }
+
+        @Override
+        public void onRenderedFirstFrame() {
+            long firstFrameMs = SystemClock.elapsedRealtime() - Player.this.showTimeMs;
+            Payload payload = Payload.firstFrameEvent(Player.this.exoPlayer, firstFrameMs, Player.this.reused);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+        }
+
         @Override
         public void onTimelineChanged(@NonNull Timeline timeline, int reason) {
-            JSONObject payload = Payload.timelineChangedEvent(Player.this.exoPlayer, timeline);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.timelineChangedEvent(Player.this.exoPlayer, timeline);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+        }
+    };
+
+    private final Runnable seekRunnable = new Runnable() {
+        public void run() {
+            if (null != exoPlayer && pendingSeekMs != C.TIME_UNSET) {
+                exoPlayer.seekTo(pendingSeekMs);
+                pendingSeekMs = C.TIME_UNSET;
+                handler.postDelayed(this, config.getSeekCoalesceWindow());
+            }
+            else {
+                pendingSeekMs = C.TIME_UNSET;
+                seekWindowOpen = false;
+            }
+        }
+    };
+
+    private final Runnable statsRunnable = new Runnable() {
+        public void run() {
+            if (null != exoPlayer) {
+                Player.this.events.send(PluginResult.Status.OK, stats.toPayload(), true);
+            }
+            scheduleStats();
+        }
+    };
+
+    private final Runnable progressRunnable = new Runnable() {
+        public void run() {
+            if (null != exoPlayer) {
+                Payload payload = Payload.progressEvent(exoPlayer);
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
+            }
+            scheduleProgress();
         }
     };
 
@@ -152,8 +234,8 @@ public class Player {
                 exoPlayer.release();
             }
             exoPlayer = null;
-            JSONObject payload = Payload.stopEvent(null);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            Payload payload = Payload.stopEvent(null);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
         }
     };
 
@@ -170,13 +252,22 @@ public class Player {
                 return false;
             }
             else {
-                JSONObject payload = Payload.keyEvent(event);
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.keyEvent(event);
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
                 return true;
             }
         }
     };
 
+    private View.OnLayoutChangeListener layoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop) {
+                applyVideoConstraints();
+            }
+        }
+    };
+
     private View.OnTouchListener onTouchListener = new View.OnTouchListener() {
         int previousAction = -1;
 
@@ -185,8 +276,8 @@ public class Player {
             int eventAction = event.getAction();
             if (previousAction != eventAction) {
                 previousAction = eventAction;
-                JSONObject payload = Payload.touchEvent(event);
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.touchEvent(event);
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
             return true;
         }
@@ -202,26 +293,29 @@ public class Player {
     private AudioManager.OnAudioFocusChangeListener audioFocusChangeListener = new AudioManager.OnAudioFocusChangeListener() {
         public void onAudioFocusChange(int focusChange) {
             if (focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT) {
-                JSONObject payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS_TRANSIENT");
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS_TRANSIENT");
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
             else if (focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK) {
-                JSONObject payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK");
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK");
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
             else if (focusChange == AudioManager.AUDIOFOCUS_GAIN) {
-                JSONObject payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_GAIN");
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_GAIN");
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
             else if (focusChange == AudioManager.AUDIOFOCUS_LOSS) {
-                JSONObject payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS");
-                new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+                Payload payload = Payload.audioFocusEvent(Player.this.exoPlayer, "AUDIOFOCUS_LOSS");
+                Player.this.events.send(PluginResult.Status.OK, payload, true);
             }
         }
     };
 
     public void createPlayer() {
         Log.i(TAG, "Playing " + config.getUri());
+        showTimeMs = SystemClock.elapsedRealtime();
+        sendConfigErrors();
+        warmup = Warmup.take(config);
 
         if (config.useInlineView()) {
             // Using a dialog doesn't work for us, as controls are drawn in HTML view (cordova ui)
@@ -254,7 +348,7 @@ public class Player {
         dialog.setOnDismissListener(dismissListener);
 
         FrameLayout mainLayout = LayoutProvider.getMainLayout(this.activity);
-        exoView = LayoutProvider.getExoPlayerView(this.activity, config);
+        exoView = createExoView();
         exoView.setControllerVisibilityListener(playbackControlVisibilityListener);
 
         mainLayout.addView(exoView);
@@ -268,7 +362,7 @@ public class Player {
     }
 
     public void createPlayerInCordovaUI() {
-        exoView = LayoutProvider.getExoPlayerView(this.activity, config);
+        exoView = createExoView();
         exoView.setControllerVisibilityListener(playbackControlVisibilityListener);
 
         exoView.setElevation(99);
@@ -301,22 +395,68 @@ public class Player {
         exoView.setOnTouchListener(onTouchListener);
     }
 
+    private StyledPlayerView createExoView() {
+        if (null != warmup && null != warmup.exoView) {
+            LayoutProvider.configureExoPlayerView(this.activity, warmup.exoView, config);
+            return warmup.exoView;
+        }
+        return LayoutProvider.getExoPlayerView(this.activity, config);
+    }
+
     public void setPlayerDimensions(JSONObject dimensions) {
         if(null != exoView){
             LayoutProvider.setExoPlayerViewLayout(activity, exoView, dimensions);
         }
     }
 
+    public void setVideoConstraints(JSONObject constraints) {
+        if (null != constraints) {
+            maxVideoBitrate = constraints.optInt("maxVideoBitrate", maxVideoBitrate);
+            maxVideoFrameRate = constraints.optInt("maxVideoFrameRate", maxVideoFrameRate);
+        }
+        applyVideoConstraints();
+    }
+
+    /**
+     * Limits adaptive selection to renditions that are needed to fill the view in physical pixels, plus any bitrate and
+     * frame rate caps set from JS. Called again whenever the view is resized.
+     */
+    private void applyVideoConstraints() {
+        if (null == exoPlayer) {
+            return;
+        }
+        TrackSelectionParameters.Builder parameters = exoPlayer.getTrackSelectionParameters().buildUpon()
+                .setMaxVideoBitrate(maxVideoBitrate > 0 ? maxVideoBitrate : Integer.MAX_VALUE)
+                .setMaxVideoFrameRate(maxVideoFrameRate > 0 ? maxVideoFrameRate : Integer.MAX_VALUE);
+        if (config.limitResolutionToView() && null != exoView && exoView.getWidth() > 0 && exoView.getHeight() > 0) {
+            parameters.setViewportSize(exoView.getWidth(), exoView.getHeight(), false);
+        }
+        else {
+            parameters.clearViewportSizeConstraints();
+        }
+        exoPlayer.setTrackSelectionParameters(parameters.build());
+    }
+
     public void setActiveTrack(JSONObject trackData) {
         if(null != exoPlayer){
            String typeStr=  trackData.optString("type");
             int trackIndex =  trackData.optInt("index", -1);
             int groupIndex =  trackData.optInt("group", -1);
-            int type = switch (typeStr){
-                   case "Text" -> TRACK_TYPE_TEXT;
-                   case "Audio" -> TRACK_TYPE_AUDIO;
-                   default -> -1;
-               };
+            int type = -1;
+            switch (typeStr) {
+                case "Text":
+                    type = TRACK_TYPE_TEXT;
+                    break;
+                case "Audio":
+                    type = TRACK_TYPE_AUDIO;
+                    break;
+            }
+           if (type == TRACK_TYPE_TEXT && trackIndex < 0) {
+               // Turning subtitles off, sidecar files that are no longer selected stop loading.
+               exoPlayer.setTrackSelectionParameters(
+                       exoPlayer.getTrackSelectionParameters().buildUpon().setTrackTypeDisabled(TRACK_TYPE_TEXT, true).build());
+               return;
+           }
            if(type >= 0 && trackIndex >= 0 && groupIndex >= 0 && lastSeenTracks != null)
            {
                ImmutableList<Tracks. Group> groups = lastSeenTracks.getGroups();
@@ -333,6 +473,7 @@ public class Player {
                                 exoPlayer
                                         .getTrackSelectionParameters()
                                         .buildUpon()
+                                        .setTrackTypeDisabled(type, false)
                                         .setOverrideForType(
                                                 new TrackSelectionOverride(
                                                         trackGroup.getMediaTrackGroup(), /* trackIndex= */ trackIndex))
@@ -348,34 +489,113 @@ public class Player {
         return audioManager.requestAudioFocus(audioFocusChangeListener, AudioManager.STREAM_MUSIC, AudioManager.AUDIOFOCUS_GAIN);
     }
 
-    private void preparePlayer(Uri uri) {
+    // Muted players, like inline previews, leave audio focus to the player that is actually heard.
+    private void requestAudioFocus() {
+        if (config.isMuted()) {
+            audioFocusString = "AUDIOFOCUS_NOT_REQUESTED";
+            return;
+        }
         int audioFocusResult = setupAudio();
-        String audioFocusString = audioFocusResult == AudioManager.AUDIOFOCUS_REQUEST_FAILED ?
+        audioFocusString = audioFocusResult == AudioManager.AUDIOFOCUS_REQUEST_FAILED ?
                 "AUDIOFOCUS_REQUEST_FAILED" :
                 "AUDIOFOCUS_REQUEST_GRANTED";
-        DefaultBandwidthMeter bandwidthMeter = new DefaultBandwidthMeter.Builder(this.activity).build();
-        //TrackSelection.Factory videoTrackSelectionFactory = new AdaptiveVideoTrackSelection.Factory(bandwidthMeter);
+    }
+
+    private void preparePlayer(Uri uri) {
+        if (config.preconnect()) {
+            DataSourceProvider.preconnect(this.activity, config, uri);
+        }
+        requestAudioFocus();
+        setUpExoPlayer();
+        startPlayback(uri);
+    }
 
-        exoPlayer = new ExoPlayer.Builder(this.activity).setWakeMode(WAKE_MODE_NETWORK).build();
+    private void setUpExoPlayer() {
+        if (null != warmup) {
+            bandwidthMeter = warmup.bandwidthMeter;
+            loadControl = warmup.loadControl;
+            loadControl.setProfile(config.getBufferingProfile());
+            exoPlayer = warmup.exoPlayer;
+        }
+        else {
+            bandwidthMeter = BandwidthMeterProvider.get(this.activity);
+            loadControl = new AdjustableLoadControl(config.getBufferingProfile());
+            exoPlayer = buildExoPlayer(this.activity, config, bandwidthMeter, loadControl);
+        }
         exoPlayer.addListener(playerEventListener);
+        exoPlayer.addAnalyticsListener(stats);
+        exoPlayer.setSeekParameters(config.getSeekParameters());
+        exoPlayer.setVolume(config.isMuted() ? 0f : 1f);
         if (null != exoView) {
             exoView.setPlayer(new ForwardingPlayer(exoPlayer) {
                 @Override
                 public long getSeekForwardIncrement() {
-                    Log.d(TAG, "ForwardingPlayer::getSeekForwardIncrement: " + config.getForwardTimeMs());
                     return config.getForwardTimeMs();
                 }
 
                 @Override
                 public long getSeekBackIncrement() {
-                    Log.d(TAG, "ForwardingPlayer::getSeekBackIncrement: " + config.getRewindTimeMs());
                     return config.getRewindTimeMs();
                 }
             });
+            exoView.addOnLayoutChangeListener(layoutChangeListener);
+        }
+        applyVideoConstraints();
+    }
+
+    /**
+     * Builds the ExoPlayer for a show, also used to build one ahead of time in {@link Warmup}.
+     */
+    static ExoPlayer buildExoPlayer(Context context, Configuration config, DefaultBandwidthMeter bandwidthMeter, LoadControl loadControl) {
+        ExoPlayer exoPlayer = new ExoPlayer.Builder(context, new PlayerRenderersFactory(context, config.isAudioOnly()))
+                .setBandwidthMeter(bandwidthMeter)
+                .setLoadControl(loadControl)
+                .setWakeMode(wakeModeFor(config.getUri()))
+                .setHandleAudioBecomingNoisy(config.isAudioOnly())
+                .build();
+        if (config.isAudioOnly()) {
+            // Streams with separate video renditions don't load them, and offloaded audio lets the CPU sleep while
+            // the DSP plays out its buffer.
+            exoPlayer.setTrackSelectionParameters(exoPlayer.getTrackSelectionParameters().buildUpon()
+                    .setTrackTypeDisabled(C.TRACK_TYPE_VIDEO, true)
+                    .build());
+            exoPlayer.experimentalSetOffloadSchedulingEnabled(true);
         }
+        return exoPlayer;
+    }
+
+    /**
+     * Local files and completed downloads only need the CPU kept awake, streams also need the wifi lock.
+     */
+    private static int wakeModeFor(Uri uri) {
+        String scheme = uri.getScheme();
+        if (null == scheme || Set.of("file", "content", "asset", "rawresource", "android.resource").contains(scheme) || Downloads.isDownloaded(uri)) {
+            return WAKE_MODE_LOCAL;
+        }
+        return WAKE_MODE_NETWORK;
+    }
 
-        MediaSource mediaSource = getMediaSource(uri, bandwidthMeter);
+    private static int wakeModeFor(JSONArray items) {
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.optJSONObject(i);
+            String url = null != item ? item.optString("url", "") : items.optString(i, "");
+            if (wakeModeFor(Uri.parse(url)) == WAKE_MODE_NETWORK) {
+                return WAKE_MODE_NETWORK;
+            }
+        }
+        return WAKE_MODE_LOCAL;
+    }
+
+    private void startPlayback(Uri uri) {
+        stats.reset();
+        scheduleStats();
+        failover = Failover.create(config, url -> handler.post(() -> {
+            Payload payload = Payload.failoverEvent(exoPlayer, url);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+        }));
+        MediaSource mediaSource = getMediaSource(uri, config.getCacheKey(), null, config.getSubtitles());
         if (mediaSource != null) {
+            exoPlayer.setWakeMode(wakeModeFor(uri));
             long startTimeMS = config.getSeekTo();
             boolean autoPlay = config.autoPlay();
             if (startTimeMS > 0) {
@@ -388,64 +608,248 @@ public class Player {
             exoPlayer.setPlayWhenReady(autoPlay);
             paused = !autoPlay;
 
-            JSONObject payload = Payload.startEvent(exoPlayer, audioFocusString);
-            new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.OK, payload, true);
+            long warmupMs = C.TIME_UNSET;
+            long savedMs = C.TIME_UNSET;
+            if (null != warmup) {
+                warmupMs = warmup.getWarmupMs();
+                savedMs = warmup.getSavedMs(uri.getHost());
+                warmup = null;
+            }
+            Payload payload = Payload.startEvent(exoPlayer, audioFocusString, reused, warmupMs, savedMs);
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+            if (config.useBackgroundService()) {
+                PlaybackService.start(activity, exoPlayer, config.getController());
+            }
         }
         else {
             sendError("Failed to construct mediaSource for " + uri);
         }
     }
 
-    private MediaSource getMediaSource(Uri uri, DefaultBandwidthMeter bandwidthMeter) {
-        String userAgent = Util.getUserAgent(this.activity, config.getUserAgent());
-        int connectTimeout = config.getConnectTimeout();
-        int readTimeout = config.getReadTimeout();
+    /**
+     * Whether this player can be handed a new configuration through {@link #reuse} instead of being closed and rebuilt.
+     */
+    public boolean canReuse(Configuration newConfig) {
+        return null != exoPlayer
+                && null != exoView
+                && null == dialog
+                && newConfig.useInlineView()
+                && newConfig.isAudioOnly() == config.isAudioOnly()
+                // ExoPlayer keeps the back buffer it was built with.
+                && null != loadControl
+                && loadControl.getBackBufferMs() == newConfig.getBufferingProfile().backBufferMs;
+    }
 
-        HttpDataSource.Factory httpDataSourceFactory = new DefaultHttpDataSource.Factory()
-                .setUserAgent(userAgent)
-                .setTransferListener(bandwidthMeter)
-                .setConnectTimeoutMs(connectTimeout)
-                .setReadTimeoutMs(readTimeout)
-                .setAllowCrossProtocolRedirects(true);
-        DataSource.Factory dataSourceFactory = new DefaultDataSource.Factory(this.activity, httpDataSourceFactory)
-                .setTransferListener(bandwidthMeter);
+    /**
+     * Keeps the existing ExoPlayer and view, swaps the media item and applies only the configuration fields that changed.
+     */
+    public void reuse(Configuration newConfig, CallbackContext newCallbackContext) {
+        Configuration oldConfig = config;
+        config = newConfig;
+        callbackContext = newCallbackContext;
+        events.flush();
+        events = new CallbackResponse(callbackContext, config.getEventBatchInterval());
+        reused = true;
+        showTimeMs = SystemClock.elapsedRealtime();
+        lastSeenTracks = null;
+        Log.i(TAG, "Reusing player for " + config.getUri());
+
+        sendConfigErrors();
+        applyConfigChanges(oldConfig);
+        startPlayback(config.getUri());
+    }
+
+    /**
+     * Merges the given settings into the configuration and applies the ones that changed to the live player, without
+     * rebuilding it. Settings that need a new player, like the url or the view type, are left alone and reported back.
+     */
+    public Payload updateConfig(JSONObject changes) throws JSONException {
+        JSONObject accepted = new JSONObject();
+        List<String> ignored = new ArrayList<>();
+        for (Iterator<String> keys = changes.keys(); keys.hasNext(); ) {
+            String key = keys.next();
+            if (FIXED_SETTINGS.contains(key)) {
+                ignored.add(key);
+            }
+            else {
+                accepted.put(key, changes.get(key));
+            }
+        }
+        Configuration oldConfig = config;
+        config = oldConfig.merge(accepted);
+        Set<String> changed = applyConfigChanges(oldConfig);
+        Log.i(TAG, "Configuration updated: " + changed);
+        return Payload.configUpdatedEvent(exoPlayer, changed, ignored, config.getErrors());
+    }
+
+    /**
+     * Applies the settings that differ between the old and the current configuration. Settings that are read when
+     * media is loaded, like the http timeouts or the subtitle url, take effect with the next media item.
+     */
+    private Set<String> applyConfigChanges(Configuration oldConfig) {
+        Set<String> changed = oldConfig.diff(config);
+        boolean videoConstraintsChanged = false;
+        for (String name : changed) {
+            switch (name) {
+                case "dimensions":
+                    setPlayerDimensions(config.getDimensions());
+                    break;
+                case "aspectRatio":
+                    if (null != exoView) {
+                        exoView.setResizeMode(config.isAspectRatioFillScreen() ? AspectRatioFrameLayout.RESIZE_MODE_FILL : AspectRatioFrameLayout.RESIZE_MODE_FIT);
+                    }
+                    break;
+                case "hideTimeout":
+                    if (null != exoView) {
+                        exoView.setControllerShowTimeoutMs(config.getHideTimeout());
+                    }
+                    break;
+                case "controller":
+                    setController(config.getController());
+                    break;
+                case "showBuffering":
+                    if (!config.getShowBuffering() && null != exoView) {
+                        LayoutProvider.setBufferingVisibility(exoView, activity, false);
+                    }
+                    break;
+                case "seekPrecision":
+                    if (null != exoPlayer) {
+                        exoPlayer.setSeekParameters(config.getSeekParameters());
+                    }
+                    break;
+                case "muted":
+                    if (null != exoPlayer) {
+                        exoPlayer.setVolume(config.isMuted() ? 0f : 1f);
+                    }
+                    requestAudioFocus();
+                    break;
+                case "buffering":
+                    if (null != loadControl) {
+                        loadControl.setProfile(config.getBufferingProfile());
+                    }
+                    break;
+                case "maxVideoBitrate":
+                    maxVideoBitrate = config.getMaxVideoBitrate();
+                    videoConstraintsChanged = true;
+                    break;
+                case "maxVideoFrameRate":
+                    maxVideoFrameRate = config.getMaxVideoFrameRate();
+                    videoConstraintsChanged = true;
+                    break;
+                case "limitResolutionToView":
+                    videoConstraintsChanged = true;
+                    break;
+                case "progressInterval":
+                    setProgressInterval(config.getProgressInterval());
+                    break;
+                case "statsInterval":
+                    scheduleStats();
+                    break;
+                case "eventBatchInterval":
+                    events.flush();
+                    events = new CallbackResponse(callbackContext, config.getEventBatchInterval());
+                    break;
+                default:
+                    // Read from the configuration every time they are used.
+                    break;
+            }
+        }
+        if (videoConstraintsChanged) {
+            applyVideoConstraints();
+        }
+        return changed;
+    }
+
+    private void sendConfigErrors() {
+        if (!config.getErrors().isEmpty()) {
+            Payload payload = Payload.configErrorEvent(config.getErrors());
+            Player.this.events.send(PluginResult.Status.OK, payload, true);
+        }
+    }
+
+    private MediaSource getMediaSource(Uri uri, String cacheKey, String mediaId, JSONArray subtitles) {
+        HttpDataSource.Factory httpDataSourceFactory = DataSourceProvider.getHttpDataSourceFactory(this.activity, config, bandwidthMeter);
+        DataSource.Factory dataSourceFactory = DataSourceProvider.getDataSourceFactory(this.activity, httpDataSourceFactory, bandwidthMeter);
+        // The mirrors stand in for the host of the show url, items from setStream or the playlist may be elsewhere.
+        Failover itemFailover = null != failover ? failover.forUri(uri) : null;
+        if (null != itemFailover) {
+            // Inside the caches, so cache keys keep the original url whichever mirror the data came from.
+            dataSourceFactory = new ResolvingDataSource.Factory(dataSourceFactory, itemFailover);
+        }
+        Cache cache = MediaCache.getCache(this.activity, config);
+        if (null != cache) {
+            dataSourceFactory = MediaCache.wrap(cache, dataSourceFactory);
+        }
+        Cache downloadCache = Downloads.getCache();
+        if (null != downloadCache) {
+            // Downloaded content is read first, so it plays without network access.
+            dataSourceFactory = Downloads.wrap(downloadCache, dataSourceFactory);
+        }
+        MediaItem.Builder mediaItem = new MediaItem.Builder()
+                .setUri(uri)
+                .setCustomCacheKey(cacheKey)
+                .setLiveConfiguration(config.getLiveConfiguration())
+                .setTag(subtitles);
+        if (null != mediaId) {
+            mediaItem.setMediaId(mediaId);
+        }
+        LoadErrorHandlingPolicy loadErrorHandlingPolicy = new RetryPolicy(config, itemFailover);
         MediaSource mediaSource;
         int type = Util.inferContentType(uri);
-        mediaSource = switch (type) {
-            case C.CONTENT_TYPE_DASH -> new DashMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(new MediaItem.Builder()
-                            .setUri(uri)
-                            .setMimeType(MimeTypes.APPLICATION_MPD)
-                            .build());
-            case C.CONTENT_TYPE_HLS -> new HlsMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(MediaItem.fromUri(uri)
-                    );
-            case C.CONTENT_TYPE_SS -> new SsMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(MediaItem.fromUri(uri));
-            case C.CONTENT_TYPE_OTHER, C.CONTENT_TYPE_RTSP -> new ProgressiveMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(MediaItem.fromUri(uri));
-            default -> new ProgressiveMediaSource.Factory(dataSourceFactory)
-                    .createMediaSource(MediaItem.fromUri(uri));
-        };
-
-        String subtitleUrl = config.getSubtitleUrl();
-        if (null != subtitleUrl) {
-            Uri subtitleUri = Uri.parse(subtitleUrl);
-            String subtitleType = inferSubtitleType(subtitleUri);
-            Log.i(TAG, "Subtitle present: " + subtitleUri + ", type=" + subtitleType);
-            MediaSource subtitleSource = new SingleSampleMediaSource.Factory(httpDataSourceFactory)
-                    .createMediaSource(
-                            new MediaItem.SubtitleConfiguration.Builder(uri)
-                                    .setMimeType(subtitleType)
-                                    .setLanguage("en")
-                                    .setSelectionFlags(C.SELECTION_FLAG_AUTOSELECT)
-                                    .build(),
-                            C.TIME_UNSET);
-            return new MergingMediaSource(mediaSource, subtitleSource);
+        switch (type) {
+            case C.CONTENT_TYPE_DASH:
+                mediaSource = new DashMediaSource.Factory(dataSourceFactory)
+                        .setLoadErrorHandlingPolicy(loadErrorHandlingPolicy)
+                        .createMediaSource(mediaItem
+                                .setMimeType(MimeTypes.APPLICATION_MPD)
+                                .build());
+                break;
+            case C.CONTENT_TYPE_HLS:
+                mediaSource = new HlsMediaSource.Factory(dataSourceFactory)
+                        .setLoadErrorHandlingPolicy(loadErrorHandlingPolicy)
+                        .createMediaSource(mediaItem.build());
+                break;
+            case C.CONTENT_TYPE_SS:
+                mediaSource = new SsMediaSource.Factory(dataSourceFactory)
+                        .setLoadErrorHandlingPolicy(loadErrorHandlingPolicy)
+                        .createMediaSource(mediaItem.build());
+                break;
+            default:
+                mediaSource = new ProgressiveMediaSource.Factory(dataSourceFactory)
+                        .setLoadErrorHandlingPolicy(loadErrorHandlingPolicy)
+                        .createMediaSource(mediaItem.build());
+                break;
         }
-        else {
+
+        if (null == subtitles || subtitles.length() == 0) {
             return mediaSource;
         }
+        // Each sidecar file is its own period of the merged source. MergingMediaPeriod only loads periods that have a
+        // selected track, so a subtitle file is downloaded when its track is selected and not before.
+        List<MediaSource> mediaSources = new ArrayList<>();
+        mediaSources.add(mediaSource);
+        SingleSampleMediaSource.Factory subtitleFactory = new SingleSampleMediaSource.Factory(dataSourceFactory)
+                .setLoadErrorHandlingPolicy(loadErrorHandlingPolicy);
+        for (int i = 0; i < subtitles.length(); i++) {
+            JSONObject subtitle = subtitles.optJSONObject(i);
+            String subtitleUrl = null != subtitle ? subtitle.optString("url", "") : "";
+            if (subtitleUrl.isEmpty()) {
+                continue;
+            }
+            Uri subtitleUri = Uri.parse(subtitleUrl);
+            String subtitleType = subtitle.optString("mimeType", inferSubtitleType(subtitleUri));
+            Log.i(TAG, "Subtitle present: " + subtitleUri + ", type=" + subtitleType);
+            mediaSources.add(subtitleFactory.createMediaSource(
+                    new MediaItem.SubtitleConfiguration.Builder(subtitleUri)
+                            .setId(SubtitleCache.trackId(subtitleUrl))
+                            .setMimeType(subtitleType)
+                            .setLanguage(subtitle.optString("language", null))
+                            .setLabel(subtitle.optString("label", null))
+                            .setSelectionFlags(subtitle.optBoolean("default") ? C.SELECTION_FLAG_DEFAULT | C.SELECTION_FLAG_AUTOSELECT : 0)
+                            .build(),
+                    C.TIME_UNSET));
+        }
+        return new MergingMediaSource(mediaSources.toArray(new MediaSource[0]));
     }
 
     private static String inferSubtitleType(Uri uri) {
@@ -460,9 +864,26 @@ public class Player {
         }
     }
 
+    /**
+     * Closes a player that was pushed out of the registry to make room for another one and lets JS know why.
+     */
+    public void evict() {
+        Payload payload = Payload.evictedEvent(exoPlayer);
+        events.send(PluginResult.Status.OK, payload, true);
+        close();
+    }
+
     public void close() {
         Log.i(TAG, "closing stream");
+        handler.removeCallbacks(progressRunnable);
+        handler.removeCallbacks(seekRunnable);
+        handler.removeCallbacks(statsRunnable);
+        seekWindowOpen = false;
+        pendingSeekMs = C.TIME_UNSET;
+        events.flush();
         audioManager.abandonAudioFocus(audioFocusChangeListener);
+        PlaybackService.stop(activity, exoPlayer);
+        resumeItems = null;
         if (exoPlayer != null) {
             exoPlayer.setPlayWhenReady(false);
             exoPlayer.stop();
@@ -480,8 +901,8 @@ public class Player {
 
     public void setStream(Uri uri, JSONObject controller) {
         if (null != uri && null != exoPlayer) {
-            DefaultBandwidthMeter bandwidthMeter = new DefaultBandwidthMeter.Builder(null).build();
-            MediaSource mediaSource = getMediaSource(uri, bandwidthMeter);
+            MediaSource mediaSource = getMediaSource(uri, null, null, config.getSubtitles());
+            exoPlayer.setWakeMode(wakeModeFor(uri));
             exoPlayer.setMediaSource(mediaSource);
             exoPlayer.prepare();
             play();
@@ -489,6 +910,186 @@ public class Player {
         setController(controller);
     }
 
+    public void setPlaylist(JSONArray items, int startIndex, long positionMs) {
+        if (null != exoPlayer && null != items) {
+            // ExoPlayer throws IllegalSeekPositionException for an index outside the list.
+            if (startIndex != C.INDEX_UNSET && (startIndex < 0 || (items.length() > 0 && startIndex >= items.length()))) {
+                sendError("setPlaylist: start index " + startIndex + " is outside the playlist of " + items.length() + " items, starting at 0");
+                startIndex = 0;
+            }
+            exoPlayer.setWakeMode(wakeModeFor(items));
+            exoPlayer.setMediaSources(getMediaSources(items), startIndex, positionMs < 0 ? C.TIME_UNSET : positionMs);
+            exoPlayer.prepare();
+            play();
+        }
+    }
+
+    public void addToPlaylist(JSONArray items, int index) {
+        if (null != exoPlayer && null != items) {
+            List<MediaSource> mediaSources = getMediaSources(items);
+            if (wakeModeFor(items) == WAKE_MODE_NETWORK) {
+                exoPlayer.setWakeMode(WAKE_MODE_NETWORK);
+            }
+            if (index < 0 || index > exoPlayer.getMediaItemCount()) {
+                exoPlayer.addMediaSources(mediaSources);
+            }
+            else {
+                exoPlayer.addMediaSources(index, mediaSources);
+            }
+        }
+    }
+
+    public void removeFromPlaylist(int index) {
+        if (null != exoPlayer && index >= 0 && index < exoPlayer.getMediaItemCount()) {
+            exoPlayer.removeMediaItem(index);
+        }
+    }
+
+    public void movePlaylistItem(int fromIndex, int toIndex) {
+        int count = null != exoPlayer ? exoPlayer.getMediaItemCount() : 0;
+        if (fromIndex >= 0 && fromIndex < count && toIndex >= 0 && toIndex < count) {
+            exoPlayer.moveMediaItem(fromIndex, toIndex);
+        }
+    }
+
+    public void seekToItem(int index, long positionMs) {
+        if (null != exoPlayer && index >= 0 && index < exoPlayer.getMediaItemCount()) {
+            exoPlayer.seekTo(index, positionMs < 0 ? C.TIME_UNSET : positionMs);
+        }
+    }
+
+    private List<MediaSource> getMediaSources(JSONArray items) {
+        List<MediaSource> mediaSources = new ArrayList<>();
+        for (int i = 0; i < items.length(); i++) {
+            JSONObject item = items.optJSONObject(i);
+            if (null != item) {
+                String url = item.optString("url", "");
+                mediaSources.add(getMediaSource(Uri.parse(url), item.optString("cacheKey", null), item.optString("id", url), item.optJSONArray("subtitles")));
+            }
+            else {
+                String url = items.optString(i, "");
+                mediaSources.add(getMediaSource(Uri.parse(url), null, url, null));
+            }
+        }
+        return mediaSources;
+    }
+
+    public void setProgressInterval(int intervalMs) {
+        progressIntervalMs = intervalMs;
+        scheduleProgress();
+    }
+
+    public void setInBackground(boolean background) {
+        inBackground = background;
+        if (!background) {
+            restoreAfterMemoryTrim();
+        }
+        scheduleProgress();
+    }
+
+    /**
+     * Sheds what this player holds for the given stage, see {@link Plugin#trimStage}, and reports it in a
+     * MEMORY_TRIM_EVENT together with the shared caches the plugin already dropped.
+     */
+    public void trimMemory(int level, int stage, List<String> sharedActions) {
+        List<String> actions = new ArrayList<>(sharedActions);
+        if (stage >= Plugin.TRIM_STAGE_BUFFERS && null != exoPlayer && null != loadControl) {
+            loadControl.setProfile(config.getBufferingProfile().shrink());
+            memoryTrimmed = true;
+            actions.add("shrinkBuffers");
+        }
+        if (stage >= Plugin.TRIM_STAGE_RELEASE && releaseForMemory()) {
+            actions.add("releasePlayer");
+        }
+        Payload payload = Payload.memoryTrimEvent(exoPlayer, level, actions, resumePositionMs);
+        events.send(PluginResult.Status.OK, payload, true);
+    }
+
+    // Only a paused player in the background goes, the view stays so the player can be rebuilt into it.
+    private boolean releaseForMemory() {
+        if (null == exoPlayer || !inBackground || exoPlayer.getPlayWhenReady()) {
+            return false;
+        }
+        int count = exoPlayer.getMediaItemCount();
+        if (count == 0) {
+            return false;
+        }
+        List<MediaItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MediaItem item = exoPlayer.getMediaItemAt(i);
+            if (null == item.localConfiguration) {
+                return false;
+            }
+            items.add(item);
+        }
+        resumeItems = items;
+        resumeIndex = exoPlayer.getCurrentMediaItemIndex();
+        resumePositionMs = exoPlayer.getCurrentPosition();
+        Log.i(TAG, "Releasing paused player at " + resumePositionMs + " ms to free memory");
+        handler.removeCallbacks(progressRunnable);
+        handler.removeCallbacks(seekRunnable);
+        seekWindowOpen = false;
+        pendingSeekMs = C.TIME_UNSET;
+        audioManager.abandonAudioFocus(audioFocusChangeListener);
+        PlaybackService.stop(activity, exoPlayer);
+        if (null != exoView) {
+            exoView.setPlayer(null);
+        }
+        exoPlayer.release();
+        exoPlayer = null;
+        return true;
+    }
+
+    // Back in the foreground: the configured buffers come back and a released player is rebuilt, paused where it was.
+    private void restoreAfterMemoryTrim() {
+        if (memoryTrimmed && null != loadControl) {
+            loadControl.setProfile(config.getBufferingProfile());
+            memoryTrimmed = false;
+        }
+        if (null == exoPlayer && null != resumeItems) {
+            Log.i(TAG, "Restoring released player at item " + resumeIndex + " of " + resumeItems.size() + ", " + resumePositionMs + " ms");
+            setUpExoPlayer();
+            List<MediaSource> mediaSources = new ArrayList<>();
+            int wakeMode = WAKE_MODE_LOCAL;
+            for (MediaItem item : resumeItems) {
+                MediaItem.LocalConfiguration local = item.localConfiguration;
+                // The subtitles the item was created with travel in its tag.
+                mediaSources.add(getMediaSource(local.uri, local.customCacheKey, item.mediaId, local.tag instanceof JSONArray ? (JSONArray) local.tag : null));
+                if (wakeModeFor(local.uri) == WAKE_MODE_NETWORK) {
+                    wakeMode = WAKE_MODE_NETWORK;
+                }
+            }
+            exoPlayer.setWakeMode(wakeMode);
+            exoPlayer.setMediaSources(mediaSources, resumeIndex, resumePositionMs);
+            exoPlayer.prepare();
+            paused = true;
+            resumeItems = null;
+            resumePositionMs = C.TIME_UNSET;
+            scheduleStats();
+            Payload payload = Payload.restoredEvent(exoPlayer);
+            events.send(PluginResult.Status.OK, payload, true);
+        }
+    }
+
+    // Progress ticks only run while something is actually playing in the foreground.
+    private void scheduleProgress() {
+        handler.removeCallbacks(progressRunnable);
+        if (progressIntervalMs > 0 && !inBackground && null != exoPlayer && exoPlayer.isPlaying()) {
+            handler.postDelayed(progressRunnable, progressIntervalMs);
+        }
+    }
+
+    public Payload getStats() {
+        return stats.toPayload();
+    }
+
+    private void scheduleStats() {
+        handler.removeCallbacks(statsRunnable);
+        if (config.getStatsInterval() > 0 && null != exoPlayer) {
+            handler.postDelayed(statsRunnable, config.getStatsInterval());
+        }
+    }
+
     public void playPause() {
         if (this.paused) {
             play();
@@ -522,29 +1123,79 @@ public class Player {
     }
 
     private long normalizeOffset(long newTime) {
-        long duration = exoPlayer.getDuration();
+        long duration = null != exoPlayer ? exoPlayer.getDuration() : C.TIME_UNSET;
         if (duration == C.TIME_UNSET) return newTime;
 
         return Math.min(Math.max(0, newTime), duration);
     }
 
-    public JSONObject seekTo(long timeMillis) {
+    public Payload seekTo(long timeMillis) {
         long newTime = normalizeOffset(timeMillis);
         Log.i(TAG, "SEEK (to) " +  timeMillis  + " / " + newTime + " (normalized)");
 
-        exoPlayer.seekTo(newTime);
-        return Payload.seekEvent(this.exoPlayer, newTime);
+        return applySeek(newTime);
     }
 
-    public JSONObject seekBy(long timeMillis) {
-        long newTime = normalizeOffset(exoPlayer.getCurrentPosition() + timeMillis);
+    // Also known while the player is released for memory.
+    private long getCurrentPosition() {
+        if (null != exoPlayer) {
+            return exoPlayer.getCurrentPosition();
+        }
+        return resumePositionMs != C.TIME_UNSET ? resumePositionMs : 0;
+    }
+
+    public Payload seekBy(long timeMillis) {
+        long position = pendingSeekMs != C.TIME_UNSET ? pendingSeekMs : getCurrentPosition();
+        long newTime = normalizeOffset(position + timeMillis);
         Log.i(TAG, "SEEK (by)" +  timeMillis  + " / " + newTime + " (normalized)");
 
+        return applySeek(newTime);
+    }
+
+    /**
+     * Seeks right away unless another seek was applied within the coalescing window. In that case only the latest
+     * target is kept and applied when the window closes, and the caller gets a cheap event without player state.
+     */
+    private Payload applySeek(long newTime) {
+        if (null == exoPlayer) {
+            // Released for memory, the player is rebuilt at the new position. Without one there is nothing to seek.
+            if (null != resumeItems) {
+                resumePositionMs = Math.max(0, newTime);
+            }
+            return Payload.seekEvent(null, newTime);
+        }
+        if (seekWindowOpen) {
+            pendingSeekMs = newTime;
+            return Payload.coalescedSeekEvent(newTime);
+        }
         exoPlayer.seekTo(newTime);
+        int windowMs = config.getSeekCoalesceWindow();
+        if (windowMs > 0) {
+            seekWindowOpen = true;
+            handler.postDelayed(seekRunnable, windowMs);
+        }
         return Payload.seekEvent(this.exoPlayer, newTime);
     }
 
-    public JSONObject getPlayerState() {
+    /**
+     * Jumps to the default position of a live stream, the target offset behind the live edge. Pending coalesced seeks
+     * are dropped so they don't pull playback back.
+     */
+    public Payload seekToLiveEdge() {
+        if (null != exoPlayer && exoPlayer.isCurrentMediaItemLive()) {
+            pendingSeekMs = C.TIME_UNSET;
+            exoPlayer.seekToDefaultPosition();
+        }
+        return getPlayerState();
+    }
+
+    public void setSeekPrecision(String precision) {
+        if (null != exoPlayer) {
+            exoPlayer.setSeekParameters(Configuration.toSeekParameters(precision));
+        }
+    }
+
+    public Payload getPlayerState() {
         return Payload.stateEvent(exoPlayer,
                 null != exoPlayer ? exoPlayer.getPlaybackState() : com.google.android.exoplayer2.Player.STATE_ENDED,
                 Player.this.controllerVisibility == View.VISIBLE);
@@ -566,12 +1217,13 @@ public class Player {
         if (null != exoView) {
             LayoutProvider.setupController(exoView, activity, controller);
         }
+        PlaybackService.setController(exoPlayer, controller);
     }
 
     private void sendError(String msg) {
         Log.e(TAG, msg);
-        JSONObject payload = Payload.playerErrorEvent(Player.this.exoPlayer, null, msg);
-        new CallbackResponse(Player.this.callbackContext).send(PluginResult.Status.ERROR, payload, true);
+        Payload payload = Payload.playerErrorEvent(Player.this.exoPlayer, null, msg);
+        Player.this.events.send(PluginResult.Status.ERROR, payload, true);
     }
 
     public void setZIndex(int index) {
@@ -0,0 +1,74 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.exoplayer2.*;
+import com.google.android.exoplayer2.mediacodec.MediaCodecSelector;
+import com.google.android.exoplayer2.text.*;
+import com.google.android.exoplayer2.video.VideoRendererEventListener;
+
+import java.util.ArrayList;
+
+/**
+ * ExoPlayer's default renderers, with the text renderer parsing sidecar subtitles through {@link SubtitleCache}.
+ * For audio only players the video renderers are left out and audio is offloaded to the DSP where the device
+ * supports it, so the CPU can sleep between buffer refills.
+ */
+public class PlayerRenderersFactory extends DefaultRenderersFactory {
+    private final boolean audioOnly;
+
+    public PlayerRenderersFactory(Context context) {
+        this(context, false);
+    }
+
+    public PlayerRenderersFactory(Context context, boolean audioOnly) {
+        super(context);
+        this.audioOnly = audioOnly;
+        setEnableAudioOffload(audioOnly);
+    }
+
+    @Override
+    protected void buildVideoRenderers(Context context, int extensionRendererMode, MediaCodecSelector mediaCodecSelector, boolean enableDecoderFallback,
+                                       Handler eventHandler, VideoRendererEventListener eventListener, long allowedVideoJoiningTimeMs, ArrayList<Renderer> out) {
+        if (!audioOnly) {
+            super.buildVideoRenderers(context, extensionRendererMode, mediaCodecSelector, enableDecoderFallback, eventHandler, eventListener, allowedVideoJoiningTimeMs, out);
+        }
+    }
+
+    @Override
+    protected void buildCameraMotionRenderers(Context context, int extensionRendererMode, ArrayList<Renderer> out) {
+        if (!audioOnly) {
+            super.buildCameraMotionRenderers(context, extensionRendererMode, out);
+        }
+    }
+
+    @Override
+    protected void buildTextRenderers(Context context, TextOutput output, Looper outputLooper, int extensionRendererMode, ArrayList<Renderer> out) {
+        out.add(new TextRenderer(output, outputLooper, SubtitleCache.DECODER_FACTORY));
+    }
+}
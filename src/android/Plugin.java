@@ -23,215 +23,410 @@
  */
 package co.frontyard.cordova.plugin.exoplayer;
 
+import android.content.ComponentCallbacks2;
 import android.graphics.Color;
 import android.net.*;
+import android.os.Build;
+import android.util.Log;
 import android.view.ViewGroup;
+import java.util.*;
+import java.util.function.Consumer;
 import org.apache.cordova.*;
 import org.json.*;
 
 public class Plugin extends CordovaPlugin {
-    private Player player;
+    private static final int DEFAULT_MAX_PLAYERS = 4;
+    // Stages of memory trimming, each one also does what the ones before it do.
+    static final int TRIM_STAGE_NONE = 0;
+    static final int TRIM_STAGE_BUFFERS = 1;
+    static final int TRIM_STAGE_CACHES = 2;
+    static final int TRIM_STAGE_RELEASE = 3;
+    static final String POST_NOTIFICATIONS = "android.permission.POST_NOTIFICATIONS";
+    private static final int NOTIFICATION_PERMISSION_REQUEST = 1;
+
+    // Kept in the order players were last visible, least recently visible first.
+    private final LinkedHashMap<String, Player> players = new LinkedHashMap<>();
+    private int maxPlayers = DEFAULT_MAX_PLAYERS;
+    private boolean notificationPermissionRequested;
+    // Every command goes through here so they run in the order JS called them.
+    private final CommandQueue commands = new CommandQueue();
+
+    private final ComponentCallbacks2 memoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            trimMemory(level);
+        }
+
+        @Override
+        public void onLowMemory() {
+            trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+
+        @Override
+        public void onConfigurationChanged(android.content.res.Configuration newConfig) {
+        }
+    };
+
+    @Override
+    protected void pluginInitialize() {
+        cordova.getActivity().getApplicationContext().registerComponentCallbacks(memoryCallbacks);
+        // <preference name="ExoPlayerTypedEvents" value="true" /> in config.xml sends numbers and booleans in events
+        // typed instead of as strings.
+        Payload.setTypedValues(preferences.getBoolean("ExoPlayerTypedEvents", false));
+        // <preference name="ExoPlayerWarmup" value="true" /> in config.xml warms up a default player at app start.
+        if (preferences.getBoolean("ExoPlayerWarmup", false)) {
+            commands.post("warmup", new Runnable() {
+                public void run() {
+                    Warmup.start(cordova.getActivity(), new Configuration(new JSONObject()), cordova.getThreadPool(), null);
+                }
+            });
+        }
+    }
+
+    /**
+     * The media notification of the background service is only shown with this permission on Android 13 and later.
+     * Asked once, before the first background player starts its service, playback doesn't wait for the answer.
+     */
+    private void requestNotificationPermission() {
+        if (notificationPermissionRequested || Build.VERSION.SDK_INT < 33 || cordova.hasPermission(POST_NOTIFICATIONS)) {
+            return;
+        }
+        notificationPermissionRequested = true;
+        cordova.requestPermission(this, NOTIFICATION_PERMISSION_REQUEST, POST_NOTIFICATIONS);
+    }
 
     @Override
     public boolean execute(final String action, final JSONArray data, final CallbackContext callbackContext) throws JSONException {
         try {
             final Plugin self = this;
             if (action.equals("show")) {
-                cordova.getActivity().runOnUiThread(new Runnable() {
+                commands.post(action, new Runnable() {
                     public void run() {
-                        if (self.player != null) {
-                            self.player.close();
-                        }
                         JSONObject params = data.optJSONObject(0);
-                        self.player = new Player(new Configuration(params), cordova.getActivity(), callbackContext, webView);
-                        webView.getView().setBackgroundColor(Color.TRANSPARENT);
-                        self.player.createPlayer();
+                        Configuration config = new Configuration(params);
+                        String id = config.getPlayerId();
+                        Player player = self.getPlayer(id);
+                        if (player != null && config.reusePlayer() && player.canReuse(config)) {
+                            player.reuse(config, callbackContext);
+                        }
+                        else {
+                            if (player != null) {
+                                player.close();
+                            }
+                            self.evictPlayers(id);
+                            if (config.useBackgroundService()) {
+                                self.requestNotificationPermission();
+                            }
+                            player = new Player(config, cordova.getActivity(), callbackContext, webView);
+                            webView.getView().setBackgroundColor(Color.TRANSPARENT);
+                            player.createPlayer();
+                        }
+                        self.putPlayer(id, player);
                         new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                     }
                 });
                 return true;
             } else if (action.equals("setDimensions")) {
-                if (self.player == null) {
-                    return false;
-                }
                 JSONObject params = data.optJSONObject(0);
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.setPlayerDimensions(params);
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 1, true, callbackContext, player -> {
+                    player.setPlayerDimensions(params);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             } else if (action.equals("setActiveTrack")) {
-                if (self.player == null) {
-                    return false;
-                }
                 JSONObject params = data.optJSONObject(0);
-                cordova.getActivity().runOnUiThread(() -> {
-                    self.player.setActiveTrack(params);
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.setActiveTrack(params);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("setVideoConstraints")) {
+                final JSONObject constraints = data.optJSONObject(0);
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.setVideoConstraints(constraints);
                     new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("setStream")) {
-                if (self.player == null) {
-                    return false;
-                }
                 final String url = data.optString(0, null);
                 final JSONObject controller = data.optJSONObject(1);
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.setStream(Uri.parse(url), controller);
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 2, false, callbackContext, player -> {
+                    player.setStream(Uri.parse(url), controller);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("setPlaylist")) {
+                final JSONArray items = data.optJSONArray(0);
+                final int startIndex = data.optInt(1, 0);
+                final long positionMs = data.optLong(2, -1);
+                self.postPlayerCommand(action, data, 3, false, callbackContext, player -> {
+                    player.setPlaylist(items, startIndex, positionMs);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("addToPlaylist")) {
+                final JSONArray items = data.optJSONArray(0);
+                final int index = data.optInt(1, -1);
+                self.postPlayerCommand(action, data, 2, false, callbackContext, player -> {
+                    player.addToPlaylist(items, index);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("removeFromPlaylist")) {
+                final int index = data.optInt(0, -1);
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.removeFromPlaylist(index);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("movePlaylistItem")) {
+                final int fromIndex = data.optInt(0, -1);
+                final int toIndex = data.optInt(1, -1);
+                self.postPlayerCommand(action, data, 2, false, callbackContext, player -> {
+                    player.movePlaylistItem(fromIndex, toIndex);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("seekToItem")) {
+                final int index = data.optInt(0, 0);
+                final long positionMs = data.optLong(1, -1);
+                self.postPlayerCommand(action, data, 2, false, callbackContext, player -> {
+                    player.seekToItem(index, positionMs);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("playPause")) {
-                if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.playPause();
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 0, true, callbackContext, player -> {
+                    player.playPause();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
 
                 return true;
             }
             else if (action.equals("stop")) {
-                if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.stop();
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    player.stop();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
 
                 return true;
             }
             else if (action.equals("seekTo")) {
-                if (self.player == null) {
-                    return false;
-                }
                 final long seekTo = data.optLong(0, 0);
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        JSONObject payload = self.player.seekTo(seekTo);
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, true);
-                    }
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    Payload payload = player.seekTo(seekTo);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, true);
+                });
+                return true;
+            }
+            else if (action.equals("seekToLiveEdge")) {
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    Payload payload = player.seekToLiveEdge();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, true);
                 });
                 return true;
             }
             else if (action.equals("seekBy")) {
-                if (self.player == null) {
-                    return false;
-                }
                 final long seekBy = data.optLong(0, 0);
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        JSONObject payload = self.player.seekBy(seekBy);
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, true);
-                    }
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    Payload payload = player.seekBy(seekBy);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, true);
+                });
+                return true;
+            }
+            else if (action.equals("setSeekPrecision")) {
+                final String precision = data.optString(0, "EXACT");
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.setSeekPrecision(precision);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("getState")) {
-                if (self.player == null) {
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    Payload response = player.getPlayerState();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, response, false);
+                });
+                return true;
+            }
+            else if (action.equals("getStats")) {
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    Payload response = commands.addStats(player.getStats());
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, response, false);
+                });
+                return true;
+            }
+            else if (action.equals("setProgressInterval")) {
+                final int intervalMs = data.optInt(0, 0);
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.setProgressInterval(intervalMs);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            }
+            else if (action.equals("updateConfig")) {
+                final JSONObject changes = data.optJSONObject(0);
+                if (changes == null) {
                     return false;
                 }
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        JSONObject response = self.player.getPlayerState();
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    try {
+                        Payload response = player.updateConfig(changes);
                         new CallbackResponse(callbackContext).send(PluginResult.Status.OK, response, false);
                     }
+                    catch (JSONException e) {
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.ERROR, false);
+                    }
                 });
                 return true;
             }
             else if (action.equals("showController")) {
-                if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.showController();
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 0, true, callbackContext, player -> {
+                    player.showController();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("hideController")) {
-                if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.hideController();
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    player.hideController();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("setController")) {
-                if (self.player == null) {
-                    return false;
-                }
                 final JSONObject controller = data.optJSONObject(0);
-                cordova.getActivity().runOnUiThread(new Runnable() {
-                    public void run() {
-                        self.player.setController(controller);
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                    }
+                self.postPlayerCommand(action, data, 1, false, callbackContext, player -> {
+                    player.setController(controller);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                 });
                 return true;
             }
             else if (action.equals("close")) {
-                if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    self.removePlayer(player);
+                    player.close();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
+                });
+                return true;
+            } else if (action.equals("setZIndex")) {
+                final int zIndex = data.optInt(0);
+                self.postPlayerCommand(action, data, 1, true, callbackContext, player -> {
+                    player.setZIndex(zIndex);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            } else if (action.equals("play")) {
+                self.postPlayerCommand(action, data, 0, true, callbackContext, player -> {
+                    player.play();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            } else if (action.equals("pause")) {
+                self.postPlayerCommand(action, data, 0, false, callbackContext, player -> {
+                    player.pause();
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                });
+                return true;
+            } else if (action.equals("trimMemory")) {
+                final int level = data.optInt(0, ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+                self.trimMemory(level);
+                commands.post(action, new Runnable() {
                     public void run() {
-                        self.player.close();
                         new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
                     }
                 });
                 return true;
-            } else if (action.equals("setZIndex")) {
-                cordova.getActivity().runOnUiThread(new Runnable() {
+            } else if (action.equals("setMaxPlayers")) {
+                commands.post(action, new Runnable() {
                     public void run() {
-                        if (self.player != null) {
-                            int zIndex = data.optInt(0);
-                            self.player.setZIndex(zIndex);
-                            new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
-                        }
+                        self.maxPlayers = Math.max(1, data.optInt(0, DEFAULT_MAX_PLAYERS));
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
                     }
                 });
                 return true;
-            } else if (action.equals("play")) {
-                 if (self.player == null) {
-                    return false;
-                }
-                cordova.getActivity().runOnUiThread(new Runnable() {
+            } else if (action.equals("preload")) {
+                final JSONObject params = data.optJSONObject(0);
+                commands.post(action, new Runnable() {
                     public void run() {
-                        self.player.play();
-                        new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
+                        Configuration config = new Configuration(null != params ? params : new JSONObject());
+                        Warmup.start(cordova.getActivity(), config, cordova.getThreadPool(), callbackContext);
                     }
                 });
                 return true;
-            } else if (action.equals("pause")) {
-                 if (self.player == null) {
+            } else if (action.equals("prefetchArtwork")) {
+                final JSONArray urls = data.optJSONArray(0);
+                if (urls == null) {
                     return false;
                 }
-                cordova.getActivity().runOnUiThread(new Runnable() {
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        Artwork.prefetch(cordova.getActivity(), urls);
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
+                    }
+                });
+                return true;
+            } else if (action.equals("initDownloads")) {
+                final JSONObject options = data.optJSONObject(0);
+                commands.post(action, new Runnable() {
                     public void run() {
-                        self.player.pause();
+                        Downloads.init(cordova.getActivity(), options, callbackContext);
                         new CallbackResponse(callbackContext).send(PluginResult.Status.NO_RESULT, true);
                     }
                 });
                 return true;
+            } else if (action.equals("download")) {
+                final JSONObject request = data.optJSONObject(0);
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        boolean added = Downloads.add(request);
+                        new CallbackResponse(callbackContext).send(added ? PluginResult.Status.OK : PluginResult.Status.ERROR, false);
+                    }
+                });
+                return true;
+            } else if (action.equals("pauseDownload")) {
+                final String id = data.isNull(0) ? null : data.optString(0);
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        Downloads.pause(id);
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
+                    }
+                });
+                return true;
+            } else if (action.equals("resumeDownload")) {
+                final String id = data.isNull(0) ? null : data.optString(0);
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        Downloads.resume(id);
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
+                    }
+                });
+                return true;
+            } else if (action.equals("removeDownload")) {
+                final String id = data.isNull(0) ? null : data.optString(0);
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        Downloads.remove(id);
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, false);
+                    }
+                });
+                return true;
+            } else if (action.equals("getDownloads")) {
+                commands.post(action, new Runnable() {
+                    public void run() {
+                        Payload response = Downloads.list();
+                        new CallbackResponse(callbackContext).send(PluginResult.Status.OK, response, false);
+                    }
+                });
+                return true;
             } else {
                 new CallbackResponse(callbackContext).send(PluginResult.Status.INVALID_ACTION, false);
                 return false;
@@ -242,4 +437,179 @@ public class Plugin extends CordovaPlugin {
             return false;
         }
     }
+
+    /**
+     * Queues a command for the player addressed by the optional id argument at idIndex. The player is looked up when the
+     * command runs, so a show or close queued just before it is taken into account. The callback gets an error when
+     * there is no such player.
+     */
+    private void postPlayerCommand(final String action, final JSONArray data, final int idIndex, final boolean visible, final CallbackContext callbackContext, final Consumer<Player> command) {
+        commands.post(action, new Runnable() {
+            public void run() {
+                Player player = visible ? getVisiblePlayer(data, idIndex) : getPlayer(data, idIndex);
+                if (player == null) {
+                    Log.w(Player.TAG, action + ": no player with id " + playerId(data, idIndex));
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.ERROR, false);
+                    return;
+                }
+                command.accept(player);
+            }
+        });
+    }
+
+    private Player getPlayer(String id) {
+        synchronized (players) {
+            return players.get(id);
+        }
+    }
+
+    /**
+     * Returns the player addressed by the optional id argument at idIndex, or the default player when there is none.
+     */
+    private Player getPlayer(JSONArray data, int idIndex) {
+        return getPlayer(playerId(data, idIndex));
+    }
+
+    // A missing or null id argument means the default player.
+    private static String playerId(JSONArray data, int idIndex) {
+        return data.isNull(idIndex) ? Configuration.DEFAULT_PLAYER_ID : data.optString(idIndex);
+    }
+
+    /**
+     * Same as getPlayer but also marks the player as the most recently visible one, so it is evicted last.
+     */
+    private Player getVisiblePlayer(JSONArray data, int idIndex) {
+        String id = playerId(data, idIndex);
+        synchronized (players) {
+            Player player = players.remove(id);
+            if (player != null) {
+                players.put(id, player);
+            }
+            return player;
+        }
+    }
+
+    private void putPlayer(String id, Player player) {
+        synchronized (players) {
+            players.remove(id);
+            players.put(id, player);
+        }
+    }
+
+    private void removePlayer(Player player) {
+        synchronized (players) {
+            players.values().remove(player);
+        }
+    }
+
+    /**
+     * Closes the least recently visible players until there is room for one more decoder, never the one with keepId.
+     */
+    private void evictPlayers(String keepId) {
+        List<Player> evicted = new ArrayList<>();
+        synchronized (players) {
+            Iterator<Map.Entry<String, Player>> it = players.entrySet().iterator();
+            int count = players.containsKey(keepId) ? players.size() - 1 : players.size();
+            while (count >= maxPlayers && it.hasNext()) {
+                Map.Entry<String, Player> entry = it.next();
+                if (!entry.getKey().equals(keepId)) {
+                    Log.i(Player.TAG, "Evicting player " + entry.getKey());
+                    evicted.add(entry.getValue());
+                    it.remove();
+                    count--;
+                }
+            }
+        }
+        for (Player player : evicted) {
+            player.evict();
+        }
+    }
+
+    /**
+     * Maps a trim level to how much to shed. While the app is running: smaller forward buffers when memory gets
+     * moderately low, dropping image, subtitle and warmup caches when it gets low, and releasing paused background
+     * players when it's critical. Once the app is in the background the OS kills processes by their memory use, so
+     * everything goes right away. TRIM_MEMORY_UI_HIDDEN only says the UI is gone, it is no sign of pressure.
+     */
+    static int trimStage(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return TRIM_STAGE_RELEASE;
+        }
+        if (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return TRIM_STAGE_CACHES;
+        }
+        if (level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            return TRIM_STAGE_BUFFERS;
+        }
+        return TRIM_STAGE_NONE;
+    }
+
+    private void trimMemory(final int level) {
+        final int stage = trimStage(level);
+        if (stage == TRIM_STAGE_NONE) {
+            return;
+        }
+        commands.post("trimMemory", new Runnable() {
+            public void run() {
+                Log.i(Player.TAG, "Trimming memory, level " + level + ", stage " + stage);
+                List<String> actions = new ArrayList<>();
+                if (stage >= TRIM_STAGE_CACHES) {
+                    Artwork.evictMemoryCache();
+                    SubtitleCache.clear();
+                    Warmup.clear();
+                    actions.add("evictCaches");
+                }
+                for (Player player : getPlayers()) {
+                    player.trimMemory(level, stage, actions);
+                }
+            }
+        });
+    }
+
+    private List<Player> getPlayers() {
+        synchronized (players) {
+            return new ArrayList<>(players.values());
+        }
+    }
+
+    @Override
+    public void onPause(boolean multitasking) {
+        commands.post("onPause", new Runnable() {
+            public void run() {
+                for (Player player : getPlayers()) {
+                    player.setInBackground(true);
+                }
+            }
+        });
+        BandwidthMeterProvider.save(cordova.getActivity());
+        super.onPause(multitasking);
+    }
+
+    @Override
+    public void onResume(boolean multitasking) {
+        super.onResume(multitasking);
+        commands.post("onResume", new Runnable() {
+            public void run() {
+                for (Player player : getPlayers()) {
+                    player.setInBackground(false);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onDestroy() {
+        cordova.getActivity().getApplicationContext().unregisterComponentCallbacks(memoryCallbacks);
+        for (Player player : getPlayers()) {
+            player.close();
+        }
+        synchronized (players) {
+            players.clear();
+        }
+        Warmup.clear();
+        BandwidthMeterProvider.save(cordova.getActivity());
+        Downloads.release();
+        MediaCache.release();
+        super.onDestroy();
+    }
 }
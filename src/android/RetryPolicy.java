@@ -0,0 +1,77 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries failed loads up to the configured retry count, waiting longer after every failure with some random jitter so
+ * players hitting the same broken CDN don't retry in lockstep. Errors ExoPlayer treats as permanent, like parse errors,
+ * are not retried. With a {@link Failover} set, failures also count towards switching to the next mirror, and the
+ * retry right after a switch goes out immediately.
+ */
+public class RetryPolicy extends DefaultLoadErrorHandlingPolicy {
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final double backoff;
+    private final double jitter;
+    private final Failover failover;
+
+    public RetryPolicy(Configuration config, Failover failover) {
+        super(config.getRetryCount());
+        this.initialDelayMs = config.getRetryDelay();
+        this.maxDelayMs = config.getRetryMaxDelay();
+        this.backoff = config.getRetryBackoff();
+        this.jitter = config.getRetryJitter();
+        this.failover = failover;
+    }
+
+    @Override
+    public long getRetryDelayMsFor(LoadErrorInfo loadErrorInfo) {
+        if (super.getRetryDelayMsFor(loadErrorInfo) == C.TIME_UNSET) {
+            return C.TIME_UNSET;
+        }
+        if (null != failover && failover.onLoadError(loadErrorInfo.errorCount)) {
+            return 0;
+        }
+        double delayMs = Math.min(initialDelayMs * Math.pow(backoff, loadErrorInfo.errorCount - 1), maxDelayMs);
+        double spreadMs = delayMs * jitter;
+        if (spreadMs > 0) {
+            delayMs += ThreadLocalRandom.current().nextDouble(-spreadMs, spreadMs);
+        }
+        return Math.max(0, Math.round(delayMs));
+    }
+
+    // With mirrors to fall back to, a failing rendition is retried on another host instead of being excluded.
+    @Override
+    public FallbackSelection getFallbackSelectionFor(FallbackOptions fallbackOptions, LoadErrorInfo loadErrorInfo) {
+        if (null != failover) {
+            return null;
+        }
+        return super.getFallbackSelectionFor(fallbackOptions, loadErrorInfo);
+    }
+}
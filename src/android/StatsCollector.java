@@ -0,0 +1,184 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.exoplayer2.*;
+import com.google.android.exoplayer2.analytics.AnalyticsListener;
+import com.google.android.exoplayer2.decoder.DecoderReuseEvaluation;
+import com.google.android.exoplayer2.source.*;
+
+/**
+ * Quality of experience metrics for one playback session. Only running totals are kept, so memory use does not grow
+ * with the length of the session. Time per video bitrate is tracked for up to {@link #MAX_BITRATES} distinct bitrates,
+ * anything beyond that is added to the last bucket.
+ */
+public class StatsCollector implements AnalyticsListener {
+    public static final int MAX_BITRATES = 16;
+
+    private long sessionStartMs;
+    private long startupTimeMs;
+    private int rebufferCount;
+    private long rebufferTimeMs;
+    private long rebufferStartMs;
+    private boolean seeking;
+    private boolean hasBeenReady;
+    private int droppedFrames;
+    private long bytesLoaded;
+    private int formatChanges;
+    private long playTimeMs;
+    private long playStartMs;
+    private int currentBitrate = Format.NO_VALUE;
+    private final int[] bitrates = new int[MAX_BITRATES];
+    private final long[] bitrateTimeMs = new long[MAX_BITRATES];
+    private int bitrateCount;
+
+    public StatsCollector() {
+        reset();
+    }
+
+    /**
+     * Starts a new session, called whenever the player is handed a new stream.
+     */
+    public void reset() {
+        sessionStartMs = SystemClock.elapsedRealtime();
+        startupTimeMs = C.TIME_UNSET;
+        rebufferCount = 0;
+        rebufferTimeMs = 0;
+        rebufferStartMs = C.TIME_UNSET;
+        seeking = false;
+        hasBeenReady = false;
+        droppedFrames = 0;
+        bytesLoaded = 0;
+        formatChanges = 0;
+        playTimeMs = 0;
+        playStartMs = C.TIME_UNSET;
+        currentBitrate = Format.NO_VALUE;
+        bitrateCount = 0;
+    }
+
+    @Override
+    public void onPlaybackStateChanged(@NonNull EventTime eventTime, int state) {
+        long now = eventTime.realtimeMs;
+        if (state == com.google.android.exoplayer2.Player.STATE_READY) {
+            if (!hasBeenReady) {
+                hasBeenReady = true;
+                startupTimeMs = now - sessionStartMs;
+            }
+            if (rebufferStartMs != C.TIME_UNSET) {
+                rebufferTimeMs += now - rebufferStartMs;
+                rebufferStartMs = C.TIME_UNSET;
+            }
+            seeking = false;
+        }
+        else if (state == com.google.android.exoplayer2.Player.STATE_BUFFERING) {
+            // Buffering after a seek or before the first frame is expected, only count stalls during playback.
+            if (hasBeenReady && !seeking) {
+                rebufferCount++;
+                rebufferStartMs = now;
+            }
+        }
+    }
+
+    @Override
+    public void onIsPlayingChanged(@NonNull EventTime eventTime, boolean isPlaying) {
+        long now = eventTime.realtimeMs;
+        if (isPlaying) {
+            playStartMs = now;
+        }
+        else {
+            accumulatePlayTime(now);
+            playStartMs = C.TIME_UNSET;
+        }
+    }
+
+    @Override
+    public void onPositionDiscontinuity(@NonNull EventTime eventTime, @NonNull com.google.android.exoplayer2.Player.PositionInfo oldPosition, @NonNull com.google.android.exoplayer2.Player.PositionInfo newPosition, int reason) {
+        if (reason == com.google.android.exoplayer2.Player.DISCONTINUITY_REASON_SEEK) {
+            seeking = true;
+        }
+    }
+
+    @Override
+    public void onLoadCompleted(@NonNull EventTime eventTime, @NonNull LoadEventInfo loadEventInfo, @NonNull MediaLoadData mediaLoadData) {
+        bytesLoaded += loadEventInfo.bytesLoaded;
+    }
+
+    @Override
+    public void onDroppedVideoFrames(@NonNull EventTime eventTime, int droppedFrames, long elapsedMs) {
+        this.droppedFrames += droppedFrames;
+    }
+
+    @Override
+    public void onVideoInputFormatChanged(@NonNull EventTime eventTime, @NonNull Format format, @Nullable DecoderReuseEvaluation decoderReuseEvaluation) {
+        accumulatePlayTime(eventTime.realtimeMs);
+        if (playStartMs != C.TIME_UNSET) {
+            playStartMs = eventTime.realtimeMs;
+        }
+        if (currentBitrate != Format.NO_VALUE && currentBitrate != format.bitrate) {
+            formatChanges++;
+        }
+        currentBitrate = format.bitrate;
+    }
+
+    public Payload toPayload() {
+        accumulatePlayTime(SystemClock.elapsedRealtime());
+        if (playStartMs != C.TIME_UNSET) {
+            playStartMs = SystemClock.elapsedRealtime();
+        }
+        long currentRebufferMs = rebufferStartMs != C.TIME_UNSET ? SystemClock.elapsedRealtime() - rebufferStartMs : 0;
+
+        return Payload.statsEvent(startupTimeMs, rebufferCount, rebufferTimeMs + currentRebufferMs, playTimeMs,
+                droppedFrames, bytesLoaded, formatChanges, currentBitrate, bitrates, bitrateTimeMs, bitrateCount);
+    }
+
+    private void accumulatePlayTime(long now) {
+        if (playStartMs == C.TIME_UNSET) {
+            return;
+        }
+        long elapsed = now - playStartMs;
+        playTimeMs += elapsed;
+        if (currentBitrate != Format.NO_VALUE) {
+            bitrateTimeMs[bitrateSlot(currentBitrate)] += elapsed;
+        }
+    }
+
+    private int bitrateSlot(int bitrate) {
+        for (int i = 0; i < bitrateCount; i++) {
+            if (bitrates[i] == bitrate) {
+                return i;
+            }
+        }
+        if (bitrateCount < MAX_BITRATES) {
+            bitrates[bitrateCount] = bitrate;
+            bitrateTimeMs[bitrateCount] = 0;
+            return bitrateCount++;
+        }
+        return MAX_BITRATES - 1;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.util.LruCache;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.Format;
+import com.google.android.exoplayer2.text.*;
+import com.google.android.exoplayer2.util.Util;
+import com.google.common.collect.ImmutableList;
+
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps parsed cues of sidecar subtitle files, so selecting a subtitle track again, or playing the same file with
+ * another stream, skips parsing. Sidecar tracks are recognized by the id given to them through {@link #trackId}, cues
+ * of subtitles embedded in the stream are not cached as they arrive in many small samples.
+ */
+public class SubtitleCache {
+    private static final String TRACK_ID_PREFIX = "sidecar:";
+    private static final int MAX_ENTRIES = 32;
+
+    private static final LruCache<String, Subtitle> subtitles = new LruCache<>(MAX_ENTRIES);
+
+    public static final SubtitleDecoderFactory DECODER_FACTORY = new SubtitleDecoderFactory() {
+        @Override
+        public boolean supportsFormat(Format format) {
+            return SubtitleDecoderFactory.DEFAULT.supportsFormat(format);
+        }
+
+        @Override
+        public SubtitleDecoder createDecoder(Format format) {
+            if (null != format.id && format.id.startsWith(TRACK_ID_PREFIX)) {
+                return new CachingDecoder(format);
+            }
+            return SubtitleDecoderFactory.DEFAULT.createDecoder(format);
+        }
+    };
+
+    public static String trackId(String url) {
+        return TRACK_ID_PREFIX + url;
+    }
+
+    public static void clear() {
+        subtitles.evictAll();
+    }
+
+    /**
+     * Looks the file up by its id and content checksum. A hit is answered right away, without a decoder thread. On a
+     * miss the sample goes to ExoPlayer's own decoder for the format, the one the renderer would have used without the
+     * cache, and its output is copied into the cache when the renderer next asks for output. Cues are cached relative
+     * to the sample, the output buffers place them at the sample's time like SimpleSubtitleDecoder does.
+     */
+    private static class CachingDecoder implements SubtitleDecoder {
+        private final Format format;
+        private final SubtitleInputBuffer inputBuffer = new SubtitleInputBuffer();
+        private final ArrayDeque<SubtitleOutputBuffer> outputs = new ArrayDeque<>();
+        private boolean inputDequeued;
+        private boolean endOfStreamPending;
+        private long positionUs;
+        // Set while a missed sample is being parsed.
+        private SubtitleDecoder parser;
+        private String parsingKey;
+        private long parsingTimeUs;
+        private long parsingSubsampleOffsetUs;
+
+        CachingDecoder(Format format) {
+            this.format = format;
+        }
+
+        @Override
+        public String getName() {
+            return "CachingSubtitleDecoder";
+        }
+
+        @Override
+        public void setPositionUs(long positionUs) {
+            this.positionUs = positionUs;
+            if (null != parser) {
+                parser.setPositionUs(positionUs);
+            }
+        }
+
+        @Override
+        public SubtitleInputBuffer dequeueInputBuffer() {
+            if (inputDequeued || null != parsingKey) {
+                return null;
+            }
+            inputDequeued = true;
+            return inputBuffer;
+        }
+
+        @Override
+        public void queueInputBuffer(SubtitleInputBuffer input) throws SubtitleDecoderException {
+            inputDequeued = false;
+            if (input.isEndOfStream()) {
+                endOfStreamPending = true;
+                input.clear();
+                return;
+            }
+            byte[] data = new byte[input.data.remaining()];
+            input.data.get(data);
+            CRC32 checksum = new CRC32();
+            checksum.update(data, 0, data.length);
+            String key = format.id + "|" + format.sampleMimeType + "|" + data.length + "|" + checksum.getValue();
+            Subtitle subtitle = subtitles.get(key);
+            if (null != subtitle) {
+                outputs.add(output(input.timeUs, subtitle, input.subsampleOffsetUs));
+            }
+            else {
+                parse(key, data, input.timeUs, input.subsampleOffsetUs);
+            }
+            input.clear();
+        }
+
+        // The sample goes in at time 0 so the cues come out relative to it, ready to be cached.
+        private void parse(String key, byte[] data, long timeUs, long subsampleOffsetUs) throws SubtitleDecoderException {
+            if (null == parser) {
+                parser = SubtitleDecoderFactory.DEFAULT.createDecoder(format);
+                parser.setPositionUs(positionUs);
+            }
+            SubtitleInputBuffer parserInput = parser.dequeueInputBuffer();
+            if (null == parserInput) {
+                throw new SubtitleDecoderException("No input buffer to parse " + format.id);
+            }
+            parserInput.ensureSpaceForWrite(data.length);
+            parserInput.data.put(data);
+            parserInput.flip();
+            parserInput.timeUs = 0;
+            parserInput.subsampleOffsetUs = 0;
+            parser.queueInputBuffer(parserInput);
+            parsingKey = key;
+            parsingTimeUs = timeUs;
+            parsingSubsampleOffsetUs = subsampleOffsetUs;
+        }
+
+        @Override
+        public SubtitleOutputBuffer dequeueOutputBuffer() throws SubtitleDecoderException {
+            if (null != parsingKey) {
+                SubtitleOutputBuffer parsed = parser.dequeueOutputBuffer();
+                if (null == parsed) {
+                    return null;
+                }
+                Subtitle subtitle = CachedSubtitle.copyOf(parsed);
+                parsed.release();
+                subtitles.put(parsingKey, subtitle);
+                parsingKey = null;
+                outputs.add(output(parsingTimeUs, subtitle, parsingSubsampleOffsetUs));
+            }
+            if (outputs.isEmpty() && endOfStreamPending) {
+                endOfStreamPending = false;
+                SubtitleOutputBuffer endOfStream = new CachedOutputBuffer();
+                endOfStream.addFlag(C.BUFFER_FLAG_END_OF_STREAM);
+                return endOfStream;
+            }
+            return outputs.poll();
+        }
+
+        private static SubtitleOutputBuffer output(long timeUs, Subtitle subtitle, long subsampleOffsetUs) {
+            SubtitleOutputBuffer output = new CachedOutputBuffer();
+            output.setContent(timeUs, subtitle, subsampleOffsetUs);
+            return output;
+        }
+
+        @Override
+        public void flush() {
+            inputDequeued = false;
+            endOfStreamPending = false;
+            outputs.clear();
+            inputBuffer.clear();
+            parsingKey = null;
+            if (null != parser) {
+                parser.flush();
+            }
+        }
+
+        @Override
+        public void release() {
+            flush();
+            if (null != parser) {
+                parser.release();
+                parser = null;
+            }
+        }
+    }
+
+    // Output buffers are not pooled, the renderer's release just lets go of the cues.
+    private static class CachedOutputBuffer extends SubtitleOutputBuffer {
+        @Override
+        public void release() {
+            clear();
+        }
+    }
+
+    // Cues copied out of the decoder's output buffer, which goes back to the decoder once released.
+    private static class CachedSubtitle implements Subtitle {
+        private final long[] eventTimesUs;
+        private final List<List<Cue>> cues;
+
+        private CachedSubtitle(long[] eventTimesUs, List<List<Cue>> cues) {
+            this.eventTimesUs = eventTimesUs;
+            this.cues = cues;
+        }
+
+        static CachedSubtitle copyOf(Subtitle subtitle) {
+            int count = subtitle.getEventTimeCount();
+            long[] eventTimesUs = new long[count];
+            List<List<Cue>> cues = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                eventTimesUs[i] = subtitle.getEventTime(i);
+                cues.add(ImmutableList.copyOf(subtitle.getCues(eventTimesUs[i])));
+            }
+            return new CachedSubtitle(eventTimesUs, cues);
+        }
+
+        @Override
+        public int getNextEventTimeIndex(long timeUs) {
+            int index = Util.binarySearchCeil(eventTimesUs, timeUs, /* inclusive= */ false, /* stayInBounds= */ false);
+            return index < eventTimesUs.length ? index : C.INDEX_UNSET;
+        }
+
+        @Override
+        public int getEventTimeCount() {
+            return eventTimesUs.length;
+        }
+
+        @Override
+        public long getEventTime(int index) {
+            return eventTimesUs[index];
+        }
+
+        @Override
+        public List<Cue> getCues(long timeUs) {
+            int index = Util.binarySearchFloor(eventTimesUs, timeUs, /* inclusive= */ true, /* stayInBounds= */ false);
+            return index >= 0 ? cues.get(index) : ImmutableList.of();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.app.Activity;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.ExoPlayer;
+import com.google.android.exoplayer2.mediacodec.MediaCodecUtil;
+import com.google.android.exoplayer2.ui.StyledPlayerView;
+import com.google.android.exoplayer2.upstream.DefaultBandwidthMeter;
+import com.google.android.exoplayer2.util.MimeTypes;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executor;
+
+import org.apache.cordova.CallbackContext;
+import org.apache.cordova.PluginResult;
+
+/**
+ * An idle ExoPlayer and StyledPlayerView built ahead of the first show, so the show that takes them over skips
+ * building its own. Warming up also fills the decoder list cache that renderers query when media is loaded and
+ * resolves the host of the stream that is about to be played.
+ */
+public class Warmup {
+    private static final String[] DECODER_MIME_TYPES = {
+            MimeTypes.VIDEO_H264, MimeTypes.VIDEO_H265, MimeTypes.VIDEO_VP9, MimeTypes.AUDIO_AAC
+    };
+    private static Warmup pending;
+
+    final ExoPlayer exoPlayer;
+    final StyledPlayerView exoView;
+    final AdjustableLoadControl loadControl;
+    final DefaultBandwidthMeter bandwidthMeter;
+    private final boolean audioOnly;
+    private final String host;
+    // Time spent building the player and view on the main thread.
+    private final long buildMs;
+    // Written from the background thread.
+    private volatile long codecMs;
+    private volatile long dnsMs;
+    private volatile long warmupMs = C.TIME_UNSET;
+
+    private Warmup(Activity activity, Configuration config) {
+        long startMs = SystemClock.elapsedRealtime();
+        audioOnly = config.isAudioOnly();
+        host = config.getUri().getHost();
+        bandwidthMeter = BandwidthMeterProvider.get(activity);
+        loadControl = new AdjustableLoadControl(config.getBufferingProfile());
+        exoPlayer = Player.buildExoPlayer(activity, config, bandwidthMeter, loadControl);
+        exoView = audioOnly ? null : LayoutProvider.getExoPlayerView(activity, config);
+        buildMs = SystemClock.elapsedRealtime() - startMs;
+    }
+
+    /**
+     * Builds a player for the given configuration on the calling (main) thread, replacing one that was not taken yet,
+     * and does the rest of the work on the executor. The callback, if any, gets a WARMUP_EVENT when everything is done.
+     */
+    public static void start(Activity activity, Configuration config, Executor executor, CallbackContext callbackContext) {
+        long startMs = SystemClock.elapsedRealtime();
+        Warmup warmup = new Warmup(activity, config);
+        synchronized (Warmup.class) {
+            if (null != pending) {
+                pending.release();
+            }
+            pending = warmup;
+        }
+        Uri uri = config.getUri();
+        Handler handler = new Handler(Looper.getMainLooper());
+        executor.execute(() -> {
+            long codecStartMs = SystemClock.elapsedRealtime();
+            for (String mimeType : DECODER_MIME_TYPES) {
+                try {
+                    MediaCodecUtil.getDecoderInfos(mimeType, false, false);
+                }
+                catch (MediaCodecUtil.DecoderQueryException e) {
+                    Log.w(Player.TAG, "Decoder query for " + mimeType + " failed: " + e.getMessage());
+                }
+            }
+            warmup.codecMs = SystemClock.elapsedRealtime() - codecStartMs;
+            if (null != warmup.host) {
+                long dnsStartMs = SystemClock.elapsedRealtime();
+                try {
+                    InetAddress.getAllByName(warmup.host);
+                    warmup.dnsMs = SystemClock.elapsedRealtime() - dnsStartMs;
+                }
+                catch (UnknownHostException e) {
+                    Log.w(Player.TAG, "Could not resolve " + warmup.host + ": " + e.getMessage());
+                }
+                DataSourceProvider.preconnect(activity, config, uri);
+            }
+            warmup.warmupMs = SystemClock.elapsedRealtime() - startMs;
+            Log.i(Player.TAG, "Warmup took " + warmup.warmupMs + " ms");
+            if (null != callbackContext) {
+                handler.post(() -> {
+                    Payload payload = Payload.warmupEvent(warmup.warmupMs, warmup.buildMs, warmup.codecMs, warmup.dnsMs);
+                    new CallbackResponse(callbackContext).send(PluginResult.Status.OK, payload, false);
+                });
+            }
+        });
+    }
+
+    /**
+     * Hands the waiting player over to a show with the given configuration, or returns null when there is none or it
+     * was built for the other kind of player (with or without a view) or with another back buffer, which can't be
+     * changed on a built player.
+     */
+    public static synchronized Warmup take(Configuration config) {
+        if (null == pending || pending.audioOnly != config.isAudioOnly()
+                || pending.loadControl.getBackBufferMs() != config.getBufferingProfile().backBufferMs) {
+            return null;
+        }
+        Warmup warmup = pending;
+        pending = null;
+        return warmup;
+    }
+
+    /**
+     * Releases the waiting player, if any.
+     */
+    public static synchronized void clear() {
+        if (null != pending) {
+            pending.release();
+            pending = null;
+        }
+    }
+
+    /**
+     * How long the warmup took overall, or C.TIME_UNSET while it is still running.
+     */
+    public long getWarmupMs() {
+        return warmupMs;
+    }
+
+    /**
+     * Estimate of the time the warmup took off the first frame for a stream from the given host: building the player
+     * and view, the decoder queries and, when the host is the one that was resolved, the DNS lookup.
+     */
+    public long getSavedMs(String streamHost) {
+        long savedMs = buildMs + codecMs;
+        if (null != host && host.equalsIgnoreCase(streamHost)) {
+            savedMs += dnsMs;
+        }
+        return savedMs;
+    }
+
+    private void release() {
+        exoPlayer.release();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import co.frontyard.cordova.plugin.exoplayer.CallbackResponse;
+import co.frontyard.cordova.plugin.exoplayer.Payload;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cordova.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time the caller spends creating an event and sending it, which is what the main thread pays per event. The JSON and
+ * the results are built and delivered on the sender thread, a count of received results makes sure the benchmark doesn't outrun it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallbackResponseBenchmark {
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private final AtomicInteger received = new AtomicInteger();
+    private int sent;
+    private FakePlayer player;
+    private CallbackResponse response;
+
+    @Setup
+    public void setUp() {
+        player = new FakePlayer();
+        response = new CallbackResponse(new CallbackContext("benchmark") {
+            @Override
+            public void sendPluginResult(PluginResult pluginResult) {
+                received.incrementAndGet();
+            }
+        });
+    }
+
+    @Benchmark
+    public void sendStateEvent() {
+        Payload event = Payload.stateEvent(player, com.google.android.exoplayer2.Player.STATE_READY, true);
+        response.send(PluginResult.Status.OK, event, true);
+        if (++sent - received.get() > MAX_IN_FLIGHT) {
+            while (sent - received.get() > 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        while (sent - received.get() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
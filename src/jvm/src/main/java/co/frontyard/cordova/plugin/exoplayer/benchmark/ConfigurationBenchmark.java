@@ -0,0 +1,88 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import co.frontyard.cordova.plugin.exoplayer.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing the show options once, and the getters the player calls on every event and control action.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigurationBenchmark {
+    private JSONObject options;
+    private Configuration configuration;
+
+    @Setup
+    public void setUp() throws JSONException {
+        options = new JSONObject("{"
+                + "\"url\": \"https://media.example.com/live/stream.m3u8\","
+                + "\"userAgent\": \"Benchmark\","
+                + "\"aspectRatio\": \"FILL_SCREEN\","
+                + "\"hideTimeout\": 3000,"
+                + "\"forwardTime\": 10000,"
+                + "\"rewindTime\": 10000,"
+                + "\"connectTimeout\": 5000,"
+                + "\"retryCount\": 5,"
+                + "\"fallbackUrls\": [\"https://mirror1.example.com\", \"https://mirror2.example.com\"],"
+                + "\"buffering\": {\"preset\": \"lowLatencyStart\", \"maxBufferMs\": 40000},"
+                + "\"seekPrecision\": \"CLOSEST_SYNC\","
+                + "\"liveTargetOffset\": 5000,"
+                + "\"controller\": {\"streamTitle\": \"Title\", \"hideProgress\": false},"
+                + "\"subtitles\": [{\"url\": \"https://media.example.com/en.vtt\", \"language\": \"en\"}]"
+                + "}");
+        configuration = new Configuration(options);
+    }
+
+    @Benchmark
+    public Configuration parse() {
+        return new Configuration(options);
+    }
+
+    @Benchmark
+    public void getters(Blackhole blackhole) {
+        blackhole.consume(configuration.getUri());
+        blackhole.consume(configuration.getPlayerId());
+        blackhole.consume(configuration.getController());
+        blackhole.consume(configuration.getHideTimeout());
+        blackhole.consume(configuration.getForwardTimeMs());
+        blackhole.consume(configuration.getRewindTimeMs());
+        blackhole.consume(configuration.getSeekParameters());
+        blackhole.consume(configuration.getBufferingProfile());
+        blackhole.consume(configuration.getLiveConfiguration());
+        blackhole.consume(configuration.getEventBatchInterval());
+        blackhole.consume(configuration.getProgressInterval());
+    }
+}
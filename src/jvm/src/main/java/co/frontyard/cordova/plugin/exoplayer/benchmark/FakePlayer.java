@@ -0,0 +1,107 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import com.google.android.exoplayer2.*;
+
+/**
+ * Player state as a plain set of fields, so benchmarks measure the payload code and not the player.
+ */
+public class FakePlayer implements ExoPlayer {
+    public long duration = 634_000;
+    public long position = 120_500;
+    public long bufferedPosition = 150_000;
+    public int playbackState = Player.STATE_READY;
+    public boolean playWhenReady = true;
+    public boolean live;
+    public long liveOffset = 4_000;
+    public PlaybackParameters playbackParameters = PlaybackParameters.DEFAULT;
+    public int mediaItemIndex;
+    public int mediaItemCount = 1;
+
+    @Override
+    public long getDuration() {
+        return duration;
+    }
+
+    @Override
+    public long getCurrentPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean getPlayWhenReady() {
+        return playWhenReady;
+    }
+
+    @Override
+    public int getPlaybackState() {
+        return playbackState;
+    }
+
+    @Override
+    public int getBufferedPercentage() {
+        return duration > 0 ? (int) (bufferedPosition * 100 / duration) : 0;
+    }
+
+    @Override
+    public long getBufferedPosition() {
+        return bufferedPosition;
+    }
+
+    @Override
+    public long getTotalBufferedDuration() {
+        return bufferedPosition - position;
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return playWhenReady && playbackState == Player.STATE_READY;
+    }
+
+    @Override
+    public boolean isCurrentMediaItemLive() {
+        return live;
+    }
+
+    @Override
+    public long getCurrentLiveOffset() {
+        return live ? liveOffset : C.TIME_UNSET;
+    }
+
+    @Override
+    public PlaybackParameters getPlaybackParameters() {
+        return playbackParameters;
+    }
+
+    @Override
+    public int getCurrentMediaItemIndex() {
+        return mediaItemIndex;
+    }
+
+    @Override
+    public int getMediaItemCount() {
+        return mediaItemCount;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import com.google.android.exoplayer2.*;
+
+/**
+ * A single window made of periodCount periods of periodDurationMs each, like a multi-period DASH manifest.
+ */
+public class FakeTimeline extends Timeline {
+    private final int periodCount;
+    private final long periodDurationUs;
+
+    public FakeTimeline(int periodCount, long periodDurationMs) {
+        this.periodCount = periodCount;
+        this.periodDurationUs = periodDurationMs * 1000;
+    }
+
+    @Override
+    public int getWindowCount() {
+        return 1;
+    }
+
+    @Override
+    public Window getWindow(int windowIndex, Window window) {
+        window.positionInFirstPeriodUs = 0;
+        return window;
+    }
+
+    @Override
+    public int getPeriodCount() {
+        return periodCount;
+    }
+
+    @Override
+    public Period getPeriod(int periodIndex, Period period) {
+        period.durationUs = periodDurationUs;
+        period.positionInWindowUs = -periodIndex * periodDurationUs;
+        return period;
+    }
+}
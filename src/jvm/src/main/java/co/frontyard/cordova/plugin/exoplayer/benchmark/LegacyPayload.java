@@ -0,0 +1,88 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import co.frontyard.cordova.plugin.exoplayer.BandwidthMeterProvider;
+import co.frontyard.cordova.plugin.exoplayer.MediaCache;
+import com.google.android.exoplayer2.ExoPlayer;
+
+import java.util.*;
+
+import org.json.JSONObject;
+
+/**
+ * How Payload built state events before they were written straight into a JSONObject: a HashMap of strings copied
+ * into a JSONObject. Fields are those of the current stateEvent so the two do the same amount of work.
+ */
+final class LegacyPayload {
+    private LegacyPayload() {
+    }
+
+    private static String playbackStateToString(int playbackState) {
+        String state = "UNKNOWN";
+        switch (playbackState) {
+            case ExoPlayer.STATE_IDLE:
+                state = "STATE_IDLE";
+                break;
+            case ExoPlayer.STATE_BUFFERING:
+                state = "STATE_BUFFERING";
+                break;
+            case ExoPlayer.STATE_READY:
+                state = "STATE_READY";
+                break;
+            case ExoPlayer.STATE_ENDED:
+                state = "STATE_ENDED";
+                break;
+        }
+        return state;
+    }
+
+    static JSONObject stateEvent(ExoPlayer player, int playbackState, boolean controllerVisible) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("eventType", "STATE_CHANGED_EVENT");
+        addPlayerState(map, player);
+        map.put("playbackState", playbackStateToString(playbackState));
+        map.put("controllerVisible", Boolean.toString(controllerVisible));
+        map.put("bandwidthEstimate", Long.toString(BandwidthMeterProvider.getEstimate()));
+        return new JSONObject(map);
+    }
+
+    private static void addPlayerState(Map<String, Object> map, ExoPlayer player) {
+        if (null != player) {
+            map.put("duration", Long.toString(player.getDuration()));
+            map.put("position", Long.toString(player.getCurrentPosition()));
+            map.put("playWhenReady", Boolean.toString(player.getPlayWhenReady()));
+            map.put("playbackState", playbackStateToString(player.getPlaybackState()));
+            map.put("bufferPercentage", Integer.toString(player.getBufferedPercentage()));
+            map.put("bufferedPosition", Long.toString(player.getBufferedPosition()));
+            map.put("totalBufferedDuration", Long.toString(player.getTotalBufferedDuration()));
+            map.put("isPlaying", Boolean.toString(player.isPlaying()));
+            if (MediaCache.isEnabled()) {
+                map.put("cacheSize", Long.toString(MediaCache.getCacheSpace()));
+                map.put("cacheHitBytes", Long.toString(MediaCache.getHitBytes()));
+                map.put("cacheMissBytes", Long.toString(MediaCache.getMissBytes()));
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer.benchmark;
+
+import co.frontyard.cordova.plugin.exoplayer.MediaCache;
+import co.frontyard.cordova.plugin.exoplayer.Payload;
+import com.google.android.exoplayer2.*;
+import com.google.common.collect.ImmutableList;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cordova.PluginResult;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of creating the events on the main thread, which only reads the player, and of turning them into JSON and the
+ * string handed to the bridge, which CallbackResponse does on its sender thread. Run with -prof gc for the bytes
+ * allocated per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadBenchmark {
+    // Strings are what apps get by default, typed values with the ExoPlayerTypedEvents preference.
+    @Param({"false", "true"})
+    public boolean typedValues;
+
+    private FakePlayer player;
+
+    @Setup
+    public void setUp() {
+        Payload.setTypedValues(typedValues);
+        player = new FakePlayer();
+        MediaCache.set(true, 120L * 1024 * 1024, 80L * 1024 * 1024, 20L * 1024 * 1024);
+    }
+
+    @State(Scope.Thread)
+    public static class TrackList {
+        @Param({"10", "100"})
+        public int trackCount;
+
+        Tracks tracks;
+
+        @Setup
+        public void setUp() {
+            tracks = createTracks(trackCount);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Periods {
+        @Param({"1", "50"})
+        public int periodCount;
+
+        Timeline timeline;
+
+        @Setup
+        public void setUp() {
+            timeline = new FakeTimeline(periodCount, 30_000);
+        }
+    }
+
+    // Half audio and half text groups of one track each, every other one selected, like a stream with many languages.
+    static Tracks createTracks(int count) {
+        ImmutableList.Builder<Tracks.Group> groups = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            boolean audio = i % 2 == 0;
+            Format format = new Format.Builder()
+                    .setId("track-" + i)
+                    .setLabel("Track " + i)
+                    .setLanguage("lang" + (i % 40))
+                    .setCodecs(audio ? "mp4a.40.2" : null)
+                    .setSampleMimeType(audio ? "audio/mp4a-latm" : "text/vtt")
+                    .setAverageBitrate(audio ? 128_000 : Format.NO_VALUE)
+                    .setChannelCount(audio ? 2 : Format.NO_VALUE)
+                    .setSampleRate(audio ? 48_000 : Format.NO_VALUE)
+                    .build();
+            groups.add(new Tracks.Group(audio ? C.TRACK_TYPE_AUDIO : C.TRACK_TYPE_TEXT,
+                    new Format[] {format}, new int[] {C.FORMAT_HANDLED}, new boolean[] {i % 4 == 0}));
+        }
+        return new Tracks(groups.build());
+    }
+
+    @Benchmark
+    public Payload stateEvent() {
+        return Payload.stateEvent(player, Player.STATE_READY, true);
+    }
+
+    @Benchmark
+    public String stateEventSerialized() {
+        return new PluginResult(PluginResult.Status.OK, Payload.stateEvent(player, Player.STATE_READY, true).toJson()).getMessage();
+    }
+
+    // The HashMap of strings the state events used to be built from on the main thread, for comparison with the two
+    // above.
+    @Benchmark
+    public JSONObject legacyStateEvent() {
+        return LegacyPayload.stateEvent(player, Player.STATE_READY, true);
+    }
+
+    @Benchmark
+    public String legacyStateEventSerialized() {
+        return new PluginResult(PluginResult.Status.OK, LegacyPayload.stateEvent(player, Player.STATE_READY, true)).getMessage();
+    }
+
+    @Benchmark
+    public Payload tracksChanged(TrackList trackList) {
+        return Payload.tracksChanged(player, trackList.tracks);
+    }
+
+    @Benchmark
+    public String tracksChangedSerialized(TrackList trackList) {
+        return new PluginResult(PluginResult.Status.OK, Payload.tracksChanged(player, trackList.tracks).toJson()).getMessage();
+    }
+
+    @Benchmark
+    public JSONObject timelineChangedEvent(Periods periods) {
+        return Payload.timelineChangedEvent(player, periods.timeline).toJson();
+    }
+
+    @Benchmark
+    public JSONObject progressEvent() {
+        return Payload.progressEvent(player).toJson();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package android.content;
+
+import java.io.File;
+import java.util.*;
+
+public class Context {
+    private final List<ComponentCallbacks> componentCallbacks = new ArrayList<>();
+    private File filesDir = new File(System.getProperty("java.io.tmpdir"));
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public File getFilesDir() {
+        return filesDir;
+    }
+
+    public void setFilesDir(File filesDir) {
+        this.filesDir = filesDir;
+    }
+
+    public void registerComponentCallbacks(ComponentCallbacks callback) {
+        componentCallbacks.add(callback);
+    }
+
+    public void unregisterComponentCallbacks(ComponentCallbacks callback) {
+        componentCallbacks.remove(callback);
+    }
+
+    public List<ComponentCallbacks> getComponentCallbacks() {
+        return componentCallbacks;
+    }
+}
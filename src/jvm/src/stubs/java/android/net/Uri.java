@@ -0,0 +1,99 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package android.net;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Objects;
+
+/**
+ * Parses like android.net.Uri for the well formed urls the plugin deals with, and like it never throws: a string
+ * java.net.URI rejects keeps its text but has no parts.
+ */
+public final class Uri {
+    public static final Uri EMPTY = new Uri("");
+
+    private final String text;
+    private final URI uri;
+
+    private Uri(String text) {
+        this.text = text;
+        URI parsed;
+        try {
+            parsed = new URI(text);
+        }
+        catch (URISyntaxException e) {
+            parsed = null;
+        }
+        this.uri = parsed;
+    }
+
+    public static Uri parse(String uriString) {
+        return new Uri(uriString);
+    }
+
+    public String getScheme() {
+        return null != uri ? uri.getScheme() : null;
+    }
+
+    public String getHost() {
+        return null != uri ? uri.getHost() : null;
+    }
+
+    public String getEncodedAuthority() {
+        return null != uri ? uri.getRawAuthority() : null;
+    }
+
+    public String getEncodedPath() {
+        return null != uri ? uri.getRawPath() : null;
+    }
+
+    public String getPath() {
+        return null != uri ? uri.getPath() : null;
+    }
+
+    public String getLastPathSegment() {
+        String path = getPath();
+        if (null == path || path.isEmpty()) {
+            return null;
+        }
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Uri && text.equals(((Uri) other).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(text);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package android.os;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Handler {
+    private final Looper looper;
+    private final Map<Runnable, List<ScheduledFuture<?>>> scheduled = new IdentityHashMap<>();
+
+    public Handler(Looper looper) {
+        this.looper = looper;
+    }
+
+    public final Looper getLooper() {
+        return looper;
+    }
+
+    public final boolean post(Runnable r) {
+        return postDelayed(r, 0);
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        synchronized (scheduled) {
+            List<ScheduledFuture<?>> futures = scheduled.computeIfAbsent(r, key -> new ArrayList<>());
+            futures.add(looper.executor.schedule(() -> {
+                synchronized (scheduled) {
+                    List<ScheduledFuture<?>> pending = scheduled.get(r);
+                    if (null != pending) {
+                        pending.removeIf(Future::isDone);
+                        if (pending.size() <= 1) {
+                            scheduled.remove(r);
+                        }
+                    }
+                }
+                r.run();
+            }, Math.max(0, delayMillis), TimeUnit.MILLISECONDS));
+        }
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+        synchronized (scheduled) {
+            List<ScheduledFuture<?>> futures = scheduled.remove(r);
+            if (null != futures) {
+                for (ScheduledFuture<?> future : futures) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.content.Context;
+
+import com.google.android.exoplayer2.database.DatabaseProvider;
+import com.google.android.exoplayer2.database.StandaloneDatabaseProvider;
+
+/**
+ * Cache counters as Payload reads them, set directly by benchmarks instead of by a SimpleCache.
+ */
+public final class MediaCache {
+    private static volatile boolean enabled;
+    private static volatile long cacheSpace;
+    private static volatile long hitBytes;
+    private static volatile long missBytes;
+    private static DatabaseProvider databaseProvider;
+
+    private MediaCache() {
+    }
+
+    public static synchronized DatabaseProvider getDatabaseProvider(Context context) {
+        if (null == databaseProvider) {
+            databaseProvider = new StandaloneDatabaseProvider(context.getApplicationContext());
+        }
+        return databaseProvider;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static long getCacheSpace() {
+        return cacheSpace;
+    }
+
+    public static long getHitBytes() {
+        return hitBytes;
+    }
+
+    public static long getMissBytes() {
+        return missBytes;
+    }
+
+    public static synchronized void release() {
+        enabled = false;
+    }
+
+    public static void set(boolean isEnabled, long space, long hits, long misses) {
+        enabled = isEnabled;
+        cacheSpace = space;
+        hitBytes = hits;
+        missBytes = misses;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import android.app.Activity;
+import android.net.Uri;
+
+import java.util.*;
+
+import org.apache.cordova.*;
+import org.json.*;
+
+/**
+ * Stands in for the player, which needs a device. Every call is written to {@link #CALLS} as "id.method", in the
+ * order calls were made, and checked against the main looper thread.
+ */
+public class Player {
+    public static final String TAG = "ExoPlayerPlugin";
+
+    public static final List<String> CALLS = Collections.synchronizedList(new ArrayList<>());
+
+    private final String id;
+
+    public Player(Configuration config, Activity activity, CallbackContext callbackContext, CordovaWebView webView) {
+        id = config.getPlayerId();
+        record("new");
+    }
+
+    private void record(String method) {
+        if (!android.os.Looper.getMainLooper().isCurrentThread()) {
+            CALLS.add(id + "." + method + " off the main thread");
+            return;
+        }
+        CALLS.add(id + "." + method);
+    }
+
+    // The tests only look at the calls, so responses carry no player values.
+    private Payload state() {
+        return Payload.restoredEvent(null);
+    }
+
+    public void createPlayer() {
+        record("createPlayer");
+    }
+
+    public void setPlayerDimensions(JSONObject dimensions) {
+        record("setPlayerDimensions");
+    }
+
+    public void setVideoConstraints(JSONObject constraints) {
+        record("setVideoConstraints");
+    }
+
+    public void setActiveTrack(JSONObject trackData) {
+        record("setActiveTrack");
+    }
+
+    public boolean canReuse(Configuration newConfig) {
+        return true;
+    }
+
+    public void reuse(Configuration newConfig, CallbackContext newCallbackContext) {
+        record("reuse");
+    }
+
+    public Payload updateConfig(JSONObject changes) throws JSONException {
+        record("updateConfig");
+        return state();
+    }
+
+    public void evict() {
+        record("evict");
+    }
+
+    public void close() {
+        record("close");
+    }
+
+    public void setStream(Uri uri, JSONObject controller) {
+        record("setStream");
+    }
+
+    public void setPlaylist(JSONArray items, int startIndex, long positionMs) {
+        record("setPlaylist");
+    }
+
+    public void addToPlaylist(JSONArray items, int index) {
+        record("addToPlaylist");
+    }
+
+    public void removeFromPlaylist(int index) {
+        record("removeFromPlaylist");
+    }
+
+    public void movePlaylistItem(int fromIndex, int toIndex) {
+        record("movePlaylistItem");
+    }
+
+    public void seekToItem(int index, long positionMs) {
+        record("seekToItem");
+    }
+
+    public void setProgressInterval(int intervalMs) {
+        record("setProgressInterval");
+    }
+
+    public void setInBackground(boolean background) {
+        record("setInBackground");
+    }
+
+    public void trimMemory(int level, int stage, List<String> sharedActions) {
+        record("trimMemory");
+    }
+
+    public Payload getStats() {
+        record("getStats");
+        return state();
+    }
+
+    public void playPause() {
+        record("playPause");
+    }
+
+    public void pause() {
+        record("pause");
+    }
+
+    public void play() {
+        record("play");
+    }
+
+    public void stop() {
+        record("stop");
+    }
+
+    public Payload seekTo(long timeMillis) {
+        record("seekTo");
+        return state();
+    }
+
+    public Payload seekBy(long timeMillis) {
+        record("seekBy");
+        return state();
+    }
+
+    public Payload seekToLiveEdge() {
+        record("seekToLiveEdge");
+        return state();
+    }
+
+    public void setSeekPrecision(String precision) {
+        record("setSeekPrecision");
+    }
+
+    public Payload getPlayerState() {
+        record("getPlayerState");
+        return state();
+    }
+
+    public void showController() {
+        record("showController");
+    }
+
+    public void hideController() {
+        record("hideController");
+    }
+
+    public void setController(JSONObject controller) {
+        record("setController");
+    }
+
+    public void setZIndex(int index) {
+        record("setZIndex");
+    }
+}
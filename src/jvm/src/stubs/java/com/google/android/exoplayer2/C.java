@@ -0,0 +1,54 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+/**
+ * The constants of the real class the plugin uses, with the same values.
+ */
+public final class C {
+    public static final long TIME_UNSET = Long.MIN_VALUE + 1;
+    public static final float RATE_UNSET = -Float.MAX_VALUE;
+    public static final int LENGTH_UNSET = -1;
+    public static final int RESULT_END_OF_INPUT = -1;
+    public static final int INDEX_UNSET = -1;
+    public static final int TRACK_TYPE_UNKNOWN = -1;
+    public static final int TRACK_TYPE_DEFAULT = 0;
+    public static final int TRACK_TYPE_AUDIO = 1;
+    public static final int TRACK_TYPE_VIDEO = 2;
+    public static final int TRACK_TYPE_TEXT = 3;
+    public static final int FORMAT_HANDLED = 4;
+    public static final int FORMAT_UNSUPPORTED_TYPE = 0;
+    public static final int DEFAULT_BUFFER_SEGMENT_SIZE = 64 * 1024;
+    public static final int DATA_TYPE_MEDIA = 1;
+    public static final int DATA_TYPE_MANIFEST = 4;
+    public static final int DATA_TYPE_MEDIA_PROGRESSIVE_LIVE = 7;
+    public static final int CONTENT_TYPE_DASH = 0;
+    public static final int CONTENT_TYPE_SS = 1;
+    public static final int CONTENT_TYPE_HLS = 2;
+    public static final int CONTENT_TYPE_RTSP = 3;
+    public static final int CONTENT_TYPE_OTHER = 4;
+
+    private C() {
+    }
+}
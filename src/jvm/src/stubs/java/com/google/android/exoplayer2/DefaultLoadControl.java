@@ -0,0 +1,163 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+import com.google.android.exoplayer2.source.TrackGroupArray;
+import com.google.android.exoplayer2.trackselection.ExoTrackSelection;
+import com.google.android.exoplayer2.upstream.Allocator;
+import com.google.android.exoplayer2.upstream.DefaultAllocator;
+
+/**
+ * Keeps the defaults and the argument checks of the real builder, which throw IllegalArgumentException when the
+ * buffer durations don't make sense, so profiles can be checked against them. Loading decisions only look at the
+ * buffer durations: loading continues below maxBufferMs and playback starts once bufferForPlaybackMs, or
+ * bufferForPlaybackAfterRebufferMs after a rebuffer, is buffered. The byte target is not modelled.
+ */
+public class DefaultLoadControl implements LoadControl {
+    public static final int DEFAULT_MIN_BUFFER_MS = 50_000;
+    public static final int DEFAULT_MAX_BUFFER_MS = 50_000;
+    public static final int DEFAULT_BUFFER_FOR_PLAYBACK_MS = 2500;
+    public static final int DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS = 5000;
+    public static final int DEFAULT_TARGET_BUFFER_BYTES = C.LENGTH_UNSET;
+    public static final boolean DEFAULT_PRIORITIZE_TIME_OVER_SIZE_THRESHOLDS = false;
+    public static final int DEFAULT_BACK_BUFFER_DURATION_MS = 0;
+    public static final boolean DEFAULT_RETAIN_BACK_BUFFER_FROM_KEYFRAME = false;
+
+    private final DefaultAllocator allocator;
+    private final long maxBufferUs;
+    private final long bufferForPlaybackUs;
+    private final long bufferForPlaybackAfterRebufferUs;
+    private final long backBufferDurationUs;
+    private final boolean retainBackBufferFromKeyframe;
+
+    private DefaultLoadControl(Builder builder) {
+        allocator = builder.allocator;
+        maxBufferUs = builder.maxBufferMs * 1000L;
+        bufferForPlaybackUs = builder.bufferForPlaybackMs * 1000L;
+        bufferForPlaybackAfterRebufferUs = builder.bufferForPlaybackAfterRebufferMs * 1000L;
+        backBufferDurationUs = builder.backBufferDurationMs * 1000L;
+        retainBackBufferFromKeyframe = builder.retainBackBufferFromKeyframe;
+    }
+
+    @Override
+    public void onPrepared() {
+    }
+
+    @Override
+    public void onTracksSelected(Renderer[] renderers, TrackGroupArray trackGroups, ExoTrackSelection[] trackSelections) {
+    }
+
+    @Override
+    public void onStopped() {
+    }
+
+    @Override
+    public void onReleased() {
+    }
+
+    @Override
+    public Allocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public long getBackBufferDurationUs() {
+        return backBufferDurationUs;
+    }
+
+    @Override
+    public boolean retainBackBufferFromKeyframe() {
+        return retainBackBufferFromKeyframe;
+    }
+
+    @Override
+    public boolean shouldContinueLoading(long playbackPositionUs, long bufferedDurationUs, float playbackSpeed) {
+        return bufferedDurationUs < maxBufferUs;
+    }
+
+    @Override
+    public boolean shouldStartPlayback(long bufferedDurationUs, float playbackSpeed, boolean rebuffering, long targetLiveOffsetUs) {
+        return bufferedDurationUs >= (rebuffering ? bufferForPlaybackAfterRebufferUs : bufferForPlaybackUs);
+    }
+
+    public static final class Builder {
+        private DefaultAllocator allocator;
+        private int minBufferMs = DEFAULT_MIN_BUFFER_MS;
+        private int maxBufferMs = DEFAULT_MAX_BUFFER_MS;
+        private int bufferForPlaybackMs = DEFAULT_BUFFER_FOR_PLAYBACK_MS;
+        private int bufferForPlaybackAfterRebufferMs = DEFAULT_BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS;
+        private int targetBufferBytes = DEFAULT_TARGET_BUFFER_BYTES;
+        private boolean prioritizeTimeOverSizeThresholds = DEFAULT_PRIORITIZE_TIME_OVER_SIZE_THRESHOLDS;
+        private int backBufferDurationMs = DEFAULT_BACK_BUFFER_DURATION_MS;
+        private boolean retainBackBufferFromKeyframe = DEFAULT_RETAIN_BACK_BUFFER_FROM_KEYFRAME;
+
+        public Builder setAllocator(DefaultAllocator allocator) {
+            this.allocator = allocator;
+            return this;
+        }
+
+        public Builder setBufferDurationsMs(int minBufferMs, int maxBufferMs, int bufferForPlaybackMs, int bufferForPlaybackAfterRebufferMs) {
+            assertGreaterOrEqual(bufferForPlaybackMs, 0, "bufferForPlaybackMs", "0");
+            assertGreaterOrEqual(bufferForPlaybackAfterRebufferMs, 0, "bufferForPlaybackAfterRebufferMs", "0");
+            assertGreaterOrEqual(minBufferMs, bufferForPlaybackMs, "minBufferMs", "bufferForPlaybackMs");
+            assertGreaterOrEqual(minBufferMs, bufferForPlaybackAfterRebufferMs, "minBufferMs", "bufferForPlaybackAfterRebufferMs");
+            assertGreaterOrEqual(maxBufferMs, minBufferMs, "maxBufferMs", "minBufferMs");
+            this.minBufferMs = minBufferMs;
+            this.maxBufferMs = maxBufferMs;
+            this.bufferForPlaybackMs = bufferForPlaybackMs;
+            this.bufferForPlaybackAfterRebufferMs = bufferForPlaybackAfterRebufferMs;
+            return this;
+        }
+
+        public Builder setTargetBufferBytes(int targetBufferBytes) {
+            this.targetBufferBytes = targetBufferBytes;
+            return this;
+        }
+
+        public Builder setPrioritizeTimeOverSizeThresholds(boolean prioritizeTimeOverSizeThresholds) {
+            this.prioritizeTimeOverSizeThresholds = prioritizeTimeOverSizeThresholds;
+            return this;
+        }
+
+        public Builder setBackBuffer(int backBufferDurationMs, boolean retainBackBufferFromKeyframe) {
+            assertGreaterOrEqual(backBufferDurationMs, 0, "backBufferDurationMs", "0");
+            this.backBufferDurationMs = backBufferDurationMs;
+            this.retainBackBufferFromKeyframe = retainBackBufferFromKeyframe;
+            return this;
+        }
+
+        public DefaultLoadControl build() {
+            if (null == allocator) {
+                allocator = new DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE);
+            }
+            return new DefaultLoadControl(this);
+        }
+
+        private static void assertGreaterOrEqual(int value1, int value2, String name1, String name2) {
+            if (value1 < value2) {
+                throw new IllegalArgumentException(name1 + " cannot be less than " + name2);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+public final class ExoPlaybackException extends PlaybackException {
+    public static final int TYPE_SOURCE = 0;
+    public static final int TYPE_RENDERER = 1;
+    public static final int TYPE_UNEXPECTED = 2;
+    public static final int TYPE_REMOTE = 3;
+
+    public final int type;
+
+    public ExoPlaybackException(int type, Throwable cause) {
+        super(null != cause ? cause.getMessage() : null, cause);
+        this.type = type;
+    }
+
+    public Exception getRendererException() {
+        return (Exception) getCause();
+    }
+
+    public java.io.IOException getSourceException() {
+        return (java.io.IOException) getCause();
+    }
+
+    public RuntimeException getUnexpectedException() {
+        return (RuntimeException) getCause();
+    }
+}
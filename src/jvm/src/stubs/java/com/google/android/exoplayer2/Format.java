@@ -0,0 +1,138 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+public final class Format {
+    public static final int NO_VALUE = -1;
+
+    public final String id;
+    public final String label;
+    public final String language;
+    public final int selectionFlags;
+    public final int bitrate;
+    public final String codecs;
+    public final String sampleMimeType;
+    public final int width;
+    public final int height;
+    public final float frameRate;
+    public final int rotationDegrees;
+    public final int channelCount;
+    public final int sampleRate;
+
+    private Format(Builder builder) {
+        id = builder.id;
+        label = builder.label;
+        language = builder.language;
+        selectionFlags = builder.selectionFlags;
+        bitrate = builder.bitrate;
+        codecs = builder.codecs;
+        sampleMimeType = builder.sampleMimeType;
+        width = builder.width;
+        height = builder.height;
+        frameRate = builder.frameRate;
+        rotationDegrees = builder.rotationDegrees;
+        channelCount = builder.channelCount;
+        sampleRate = builder.sampleRate;
+    }
+
+    public static final class Builder {
+        private String id;
+        private String label;
+        private String language;
+        private int selectionFlags;
+        private int bitrate = NO_VALUE;
+        private String codecs;
+        private String sampleMimeType;
+        private int width = NO_VALUE;
+        private int height = NO_VALUE;
+        private float frameRate = NO_VALUE;
+        private int rotationDegrees;
+        private int channelCount = NO_VALUE;
+        private int sampleRate = NO_VALUE;
+
+        public Builder setId(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setLabel(String label) {
+            this.label = label;
+            return this;
+        }
+
+        public Builder setLanguage(String language) {
+            this.language = language;
+            return this;
+        }
+
+        public Builder setSelectionFlags(int selectionFlags) {
+            this.selectionFlags = selectionFlags;
+            return this;
+        }
+
+        public Builder setAverageBitrate(int bitrate) {
+            this.bitrate = bitrate;
+            return this;
+        }
+
+        public Builder setCodecs(String codecs) {
+            this.codecs = codecs;
+            return this;
+        }
+
+        public Builder setSampleMimeType(String sampleMimeType) {
+            this.sampleMimeType = sampleMimeType;
+            return this;
+        }
+
+        public Builder setWidth(int width) {
+            this.width = width;
+            return this;
+        }
+
+        public Builder setHeight(int height) {
+            this.height = height;
+            return this;
+        }
+
+        public Builder setFrameRate(float frameRate) {
+            this.frameRate = frameRate;
+            return this;
+        }
+
+        public Builder setChannelCount(int channelCount) {
+            this.channelCount = channelCount;
+            return this;
+        }
+
+        public Builder setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Format build() {
+            return new Format(this);
+        }
+    }
+}
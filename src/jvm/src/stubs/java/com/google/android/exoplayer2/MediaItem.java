@@ -0,0 +1,105 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+import java.util.Objects;
+
+public final class MediaItem {
+    public final String mediaId;
+
+    public MediaItem(String mediaId) {
+        this.mediaId = mediaId;
+    }
+
+    public static final class LiveConfiguration {
+        public final long targetOffsetMs;
+        public final long minOffsetMs;
+        public final long maxOffsetMs;
+        public final float minPlaybackSpeed;
+        public final float maxPlaybackSpeed;
+
+        private LiveConfiguration(Builder builder) {
+            targetOffsetMs = builder.targetOffsetMs;
+            minOffsetMs = builder.minOffsetMs;
+            maxOffsetMs = builder.maxOffsetMs;
+            minPlaybackSpeed = builder.minPlaybackSpeed;
+            maxPlaybackSpeed = builder.maxPlaybackSpeed;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof LiveConfiguration)) {
+                return false;
+            }
+            LiveConfiguration that = (LiveConfiguration) other;
+            return targetOffsetMs == that.targetOffsetMs
+                    && minOffsetMs == that.minOffsetMs
+                    && maxOffsetMs == that.maxOffsetMs
+                    && minPlaybackSpeed == that.minPlaybackSpeed
+                    && maxPlaybackSpeed == that.maxPlaybackSpeed;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(targetOffsetMs, minOffsetMs, maxOffsetMs, minPlaybackSpeed, maxPlaybackSpeed);
+        }
+
+        public static final class Builder {
+            private long targetOffsetMs = C.TIME_UNSET;
+            private long minOffsetMs = C.TIME_UNSET;
+            private long maxOffsetMs = C.TIME_UNSET;
+            private float minPlaybackSpeed = C.RATE_UNSET;
+            private float maxPlaybackSpeed = C.RATE_UNSET;
+
+            public Builder setTargetOffsetMs(long targetOffsetMs) {
+                this.targetOffsetMs = targetOffsetMs;
+                return this;
+            }
+
+            public Builder setMinOffsetMs(long minOffsetMs) {
+                this.minOffsetMs = minOffsetMs;
+                return this;
+            }
+
+            public Builder setMaxOffsetMs(long maxOffsetMs) {
+                this.maxOffsetMs = maxOffsetMs;
+                return this;
+            }
+
+            public Builder setMinPlaybackSpeed(float minPlaybackSpeed) {
+                this.minPlaybackSpeed = minPlaybackSpeed;
+                return this;
+            }
+
+            public Builder setMaxPlaybackSpeed(float maxPlaybackSpeed) {
+                this.maxPlaybackSpeed = maxPlaybackSpeed;
+                return this;
+            }
+
+            public LiveConfiguration build() {
+                return new LiveConfiguration(this);
+            }
+        }
+    }
+}
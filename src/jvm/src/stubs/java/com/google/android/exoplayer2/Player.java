@@ -0,0 +1,62 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+public interface Player {
+    int STATE_IDLE = 1;
+    int STATE_BUFFERING = 2;
+    int STATE_READY = 3;
+    int STATE_ENDED = 4;
+
+    int MEDIA_ITEM_TRANSITION_REASON_REPEAT = 0;
+    int MEDIA_ITEM_TRANSITION_REASON_AUTO = 1;
+    int MEDIA_ITEM_TRANSITION_REASON_SEEK = 2;
+    int MEDIA_ITEM_TRANSITION_REASON_PLAYLIST_CHANGED = 3;
+
+    long getDuration();
+
+    long getCurrentPosition();
+
+    boolean getPlayWhenReady();
+
+    int getPlaybackState();
+
+    int getBufferedPercentage();
+
+    long getBufferedPosition();
+
+    long getTotalBufferedDuration();
+
+    boolean isPlaying();
+
+    boolean isCurrentMediaItemLive();
+
+    long getCurrentLiveOffset();
+
+    PlaybackParameters getPlaybackParameters();
+
+    int getCurrentMediaItemIndex();
+
+    int getMediaItemCount();
+}
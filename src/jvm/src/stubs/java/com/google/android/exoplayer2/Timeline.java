@@ -0,0 +1,59 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+public abstract class Timeline {
+    public abstract int getWindowCount();
+
+    public abstract Window getWindow(int windowIndex, Window window);
+
+    public abstract int getPeriodCount();
+
+    public abstract Period getPeriod(int periodIndex, Period period);
+
+    public int getFirstWindowIndex(boolean shuffleModeEnabled) {
+        return getWindowCount() == 0 ? C.INDEX_UNSET : 0;
+    }
+
+    public static final class Window {
+        public long positionInFirstPeriodUs;
+
+        public long getPositionInFirstPeriodMs() {
+            return positionInFirstPeriodUs == C.TIME_UNSET ? C.TIME_UNSET : positionInFirstPeriodUs / 1000;
+        }
+    }
+
+    public static final class Period {
+        public long durationUs = C.TIME_UNSET;
+        public long positionInWindowUs;
+
+        public long getDurationMs() {
+            return durationUs == C.TIME_UNSET ? C.TIME_UNSET : durationUs / 1000;
+        }
+
+        public long getPositionInWindowMs() {
+            return positionInWindowUs / 1000;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2;
+
+import com.google.common.collect.ImmutableList;
+
+public final class Tracks {
+    private final ImmutableList<Group> groups;
+
+    public Tracks(ImmutableList<Group> groups) {
+        this.groups = groups;
+    }
+
+    public ImmutableList<Group> getGroups() {
+        return groups;
+    }
+
+    public static final class Group {
+        public final int length;
+
+        private final int type;
+        private final Format[] formats;
+        private final int[] trackSupport;
+        private final boolean[] trackSelected;
+
+        public Group(int type, Format[] formats, int[] trackSupport, boolean[] trackSelected) {
+            this.length = formats.length;
+            this.type = type;
+            this.formats = formats;
+            this.trackSupport = trackSupport;
+            this.trackSelected = trackSelected;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public Format getTrackFormat(int trackIndex) {
+            return formats[trackIndex];
+        }
+
+        public int getTrackSupport(int trackIndex) {
+            return trackSupport[trackIndex];
+        }
+
+        public boolean isTrackSelected(int trackIndex) {
+            return trackSelected[trackIndex];
+        }
+    }
+}
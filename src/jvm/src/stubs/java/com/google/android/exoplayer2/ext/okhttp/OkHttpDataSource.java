@@ -0,0 +1,124 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.ext.okhttp;
+
+import android.net.Uri;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.HttpDataSource;
+import com.google.android.exoplayer2.upstream.TransferListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.*;
+
+/**
+ * Plain GET requests through the call factory, without ranges or request properties.
+ */
+public final class OkHttpDataSource implements HttpDataSource {
+    private final Call.Factory callFactory;
+    private final String userAgent;
+    private Uri uri;
+    private Response response;
+    private InputStream stream;
+
+    private OkHttpDataSource(Call.Factory callFactory, String userAgent) {
+        this.callFactory = callFactory;
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        uri = dataSpec.uri;
+        Request.Builder request = new Request.Builder().url(dataSpec.uri.toString());
+        if (null != userAgent) {
+            request.header("User-Agent", userAgent);
+        }
+        try {
+            response = callFactory.newCall(request.build()).execute();
+        }
+        catch (IOException e) {
+            throw new HttpDataSourceException("Unable to connect", e, dataSpec);
+        }
+        if (!response.isSuccessful()) {
+            int code = response.code();
+            String message = response.message();
+            close();
+            throw new InvalidResponseCodeException(code, message, dataSpec);
+        }
+        ResponseBody body = response.body();
+        stream = body.byteStream();
+        return body.contentLength() >= 0 ? body.contentLength() : C.LENGTH_UNSET;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (null == stream) {
+            throw new IOException("Not opened");
+        }
+        int read = stream.read(buffer, offset, length);
+        return read == -1 ? C.RESULT_END_OF_INPUT : read;
+    }
+
+    @Override
+    public Uri getUri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (null != response) {
+            response.close();
+            response = null;
+        }
+        stream = null;
+    }
+
+    public static final class Factory implements HttpDataSource.Factory {
+        private final Call.Factory callFactory;
+        private String userAgent;
+        private TransferListener transferListener;
+
+        public Factory(Call.Factory callFactory) {
+            this.callFactory = callFactory;
+        }
+
+        public Factory setUserAgent(String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        public Factory setTransferListener(TransferListener transferListener) {
+            this.transferListener = transferListener;
+            return this;
+        }
+
+        @Override
+        public HttpDataSource createDataSource() {
+            return new OkHttpDataSource(callFactory, userAgent);
+        }
+    }
+}
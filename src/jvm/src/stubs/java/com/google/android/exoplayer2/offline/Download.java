@@ -0,0 +1,65 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.offline;
+
+public final class Download {
+    public static final int STATE_QUEUED = 0;
+    public static final int STATE_STOPPED = 1;
+    public static final int STATE_DOWNLOADING = 2;
+    public static final int STATE_COMPLETED = 3;
+    public static final int STATE_FAILED = 4;
+    public static final int STATE_REMOVING = 5;
+    public static final int STATE_RESTARTING = 7;
+
+    public static final int STOP_REASON_NONE = 0;
+    public static final int FAILURE_REASON_NONE = 0;
+    public static final int FAILURE_REASON_UNKNOWN = 1;
+
+    public final DownloadRequest request;
+    public final int state;
+    public final long contentLength;
+    public final int stopReason;
+    public final int failureReason;
+
+    private final long bytesDownloaded;
+    private final float percentDownloaded;
+
+    public Download(DownloadRequest request, int state, long contentLength, int stopReason, int failureReason, long bytesDownloaded, float percentDownloaded) {
+        this.request = request;
+        this.state = state;
+        this.contentLength = contentLength;
+        this.stopReason = stopReason;
+        this.failureReason = failureReason;
+        this.bytesDownloaded = bytesDownloaded;
+        this.percentDownloaded = percentDownloaded;
+    }
+
+    public long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    public float getPercentDownloaded() {
+        return percentDownloaded;
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.offline;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.database.DatabaseProvider;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DataSpec;
+import com.google.android.exoplayer2.upstream.cache.Cache;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+import com.google.android.exoplayer2.util.MimeTypes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs downloads the way the real manager does for what the plugin relies on. An HLS download loads its media playlist
+ * and then the segments it lists in parallel on the executor, other downloads are loaded as one file. Segments loaded
+ * before a pause are skipped when the download resumes. Cached bytes are only counted, through
+ * {@link SimpleCache#addSpan}, and the index lives in memory.
+ *
+ * Like the real manager it must be called on the main looper and reports changes there. Calls are written to
+ * {@link #CALLS}.
+ */
+public final class DownloadManager {
+    public static final List<String> CALLS = Collections.synchronizedList(new ArrayList<>());
+
+    public interface Listener {
+        default void onDownloadChanged(DownloadManager downloadManager, Download download, Exception finalException) {
+        }
+
+        default void onDownloadRemoved(DownloadManager downloadManager, Download download) {
+        }
+    }
+
+    private final SimpleCache cache;
+    private final DataSource.Factory dataSourceFactory;
+    private final Executor executor;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Changed on the main looper only, guarded for the index which may be read on any thread.
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private int maxParallelDownloads = 3;
+    private boolean downloadsPaused = true;
+    private volatile boolean released;
+
+    public DownloadManager(Context context, DatabaseProvider databaseProvider, Cache cache, DataSource.Factory upstreamFactory, Executor executor) {
+        this.cache = (SimpleCache) cache;
+        this.dataSourceFactory = upstreamFactory;
+        this.executor = executor;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setMaxParallelDownloads(int maxParallelDownloads) {
+        CALLS.add("setMaxParallelDownloads:" + maxParallelDownloads);
+        this.maxParallelDownloads = maxParallelDownloads;
+        startDownloads();
+    }
+
+    public boolean getDownloadsPaused() {
+        return downloadsPaused;
+    }
+
+    public void pauseDownloads() {
+        CALLS.add("pauseDownloads");
+        downloadsPaused = true;
+        for (Entry entry : getEntries()) {
+            if (entry.state == Download.STATE_DOWNLOADING) {
+                cancel(entry);
+                setState(entry, Download.STATE_QUEUED, null);
+            }
+        }
+    }
+
+    public void resumeDownloads() {
+        CALLS.add("resumeDownloads");
+        downloadsPaused = false;
+        startDownloads();
+    }
+
+    /**
+     * Adding an id again keeps the download that is already there.
+     */
+    public void addDownload(DownloadRequest request) {
+        CALLS.add("addDownload:" + request.id);
+        Entry entry = new Entry(request);
+        synchronized (entries) {
+            if (entries.containsKey(request.id)) {
+                return;
+            }
+            entries.put(request.id, entry);
+        }
+        notifyChanged(entry, null);
+        startDownloads();
+    }
+
+    public void setStopReason(String id, int stopReason) {
+        CALLS.add("setStopReason:" + id + ":" + stopReason);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (null == entry) {
+            return;
+        }
+        entry.stopReason = stopReason;
+        if (stopReason != Download.STOP_REASON_NONE) {
+            if (entry.state == Download.STATE_QUEUED || entry.state == Download.STATE_DOWNLOADING) {
+                cancel(entry);
+                setState(entry, Download.STATE_STOPPED, null);
+                startDownloads();
+            }
+        }
+        else if (entry.state == Download.STATE_STOPPED) {
+            setState(entry, Download.STATE_QUEUED, null);
+            startDownloads();
+        }
+    }
+
+    public void removeDownload(String id) {
+        CALLS.add("removeDownload:" + id);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.remove(id);
+        }
+        if (null == entry) {
+            return;
+        }
+        cancel(entry);
+        cache.removeSpan(entry.bytesDownloaded);
+        entry.state = Download.STATE_REMOVING;
+        Download download = entry.toDownload();
+        handler.post(() -> {
+            if (!released) {
+                for (Listener listener : listeners) {
+                    listener.onDownloadRemoved(this, download);
+                }
+            }
+        });
+        startDownloads();
+    }
+
+    /**
+     * Downloads that are neither completed nor failed.
+     */
+    public List<Download> getCurrentDownloads() {
+        List<Download> downloads = new ArrayList<>();
+        for (Entry entry : getEntries()) {
+            if (entry.state != Download.STATE_COMPLETED && entry.state != Download.STATE_FAILED) {
+                downloads.add(entry.toDownload());
+            }
+        }
+        return downloads;
+    }
+
+    public DownloadIndex getDownloadIndex() {
+        return states -> {
+            List<Download> downloads = new ArrayList<>();
+            for (Entry entry : getEntries()) {
+                Download download = entry.toDownload();
+                if (0 == states.length || contains(states, download.state)) {
+                    downloads.add(download);
+                }
+            }
+            return new ListCursor(downloads);
+        };
+    }
+
+    public void release() {
+        CALLS.add("release");
+        released = true;
+        for (Entry entry : getEntries()) {
+            cancel(entry);
+        }
+        listeners.clear();
+    }
+
+    private List<Entry> getEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.values());
+        }
+    }
+
+    private void startDownloads() {
+        if (downloadsPaused || released) {
+            return;
+        }
+        List<Entry> all = getEntries();
+        int running = 0;
+        for (Entry entry : all) {
+            if (entry.state == Download.STATE_DOWNLOADING) {
+                running++;
+            }
+        }
+        for (Entry entry : all) {
+            if (running >= maxParallelDownloads) {
+                return;
+            }
+            if (entry.state == Download.STATE_QUEUED && entry.stopReason == Download.STOP_REASON_NONE) {
+                running++;
+                setState(entry, Download.STATE_DOWNLOADING, null);
+                Task task = new Task(entry);
+                entry.task = task;
+                Thread thread = new Thread(task, "Download " + entry.request.id);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private static void cancel(Entry entry) {
+        Task task = entry.task;
+        if (null != task) {
+            task.cancelled = true;
+            entry.task = null;
+        }
+    }
+
+    private void setState(Entry entry, int state, Exception finalException) {
+        entry.state = state;
+        notifyChanged(entry, finalException);
+    }
+
+    // Posted like the real manager does from its internal thread, listeners may call back into the manager.
+    private void notifyChanged(Entry entry, Exception finalException) {
+        Download download = entry.toDownload();
+        handler.post(() -> {
+            if (!released) {
+                for (Listener listener : listeners) {
+                    listener.onDownloadChanged(this, download, finalException);
+                }
+            }
+        });
+    }
+
+    private static boolean contains(int[] states, int state) {
+        for (int value : states) {
+            if (value == state) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        final DownloadRequest request;
+        // Uris of the loaded segments, added on the main looper and read by the task.
+        final Set<String> loaded = ConcurrentHashMap.newKeySet();
+        volatile int state = Download.STATE_QUEUED;
+        volatile int stopReason = Download.STOP_REASON_NONE;
+        volatile int failureReason = Download.FAILURE_REASON_NONE;
+        volatile long bytesDownloaded;
+        volatile int segmentCount;
+        volatile Task task;
+
+        Entry(DownloadRequest request) {
+            this.request = request;
+        }
+
+        Download toDownload() {
+            float percent = segmentCount > 0 ? loaded.size() * 100f / segmentCount : 0;
+            return new Download(request, state, C.LENGTH_UNSET, stopReason, failureReason, bytesDownloaded, percent);
+        }
+    }
+
+    private final class Task implements Runnable {
+        final Entry entry;
+        volatile boolean cancelled;
+
+        Task(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<Uri> segments = getSegments(entry.request);
+                handler.post(() -> {
+                    if (isCurrent()) {
+                        entry.segmentCount = segments.size();
+                    }
+                });
+                List<CompletableFuture<Void>> loads = new ArrayList<>();
+                for (Uri segment : segments) {
+                    if (!entry.loaded.contains(segment.toString())) {
+                        loads.add(CompletableFuture.runAsync(() -> loadSegment(segment), executor));
+                    }
+                }
+                CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).join();
+                handler.post(() -> {
+                    if (isCurrent()) {
+                        entry.task = null;
+                        setState(entry, Download.STATE_COMPLETED, null);
+                        startDownloads();
+                    }
+                });
+            }
+            catch (IOException | RuntimeException e) {
+                handler.post(() -> {
+                    if (isCurrent()) {
+                        entry.task = null;
+                        entry.failureReason = Download.FAILURE_REASON_UNKNOWN;
+                        setState(entry, Download.STATE_FAILED, e);
+                        startDownloads();
+                    }
+                });
+            }
+        }
+
+        // Read on the main looper, where the task is replaced or cancelled.
+        private boolean isCurrent() {
+            return !released && entry.task == this;
+        }
+
+        private List<Uri> getSegments(DownloadRequest request) throws IOException {
+            if (!MimeTypes.APPLICATION_M3U8.equals(request.mimeType)) {
+                return Collections.singletonList(request.uri);
+            }
+            URI playlist = URI.create(request.uri.toString());
+            List<Uri> segments = new ArrayList<>();
+            for (String line : new String(load(request.uri), StandardCharsets.UTF_8).split("\\n")) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    segments.add(Uri.parse(playlist.resolve(line).toString()));
+                }
+            }
+            return segments;
+        }
+
+        // Bytes of a segment that finishes after the download was paused or removed are dropped.
+        private void loadSegment(Uri segment) {
+            if (cancelled) {
+                return;
+            }
+            long length;
+            try {
+                length = load(segment).length;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            handler.post(() -> {
+                if (isCurrent() && entry.loaded.add(segment.toString())) {
+                    entry.bytesDownloaded += length;
+                    cache.addSpan(length);
+                }
+            });
+        }
+
+        private byte[] load(Uri uri) throws IOException {
+            DataSource dataSource = dataSourceFactory.createDataSource();
+            try {
+                dataSource.open(new DataSpec(uri));
+                ByteArrayOutputStream data = new ByteArrayOutputStream();
+                byte[] buffer = new byte[C.DEFAULT_BUFFER_SEGMENT_SIZE];
+                int read;
+                while ((read = dataSource.read(buffer, 0, buffer.length)) != C.RESULT_END_OF_INPUT) {
+                    data.write(buffer, 0, read);
+                }
+                return data.toByteArray();
+            }
+            finally {
+                dataSource.close();
+            }
+        }
+    }
+
+    private static final class ListCursor implements DownloadCursor {
+        private final List<Download> downloads;
+        private int position = -1;
+
+        ListCursor(List<Download> downloads) {
+            this.downloads = downloads;
+        }
+
+        @Override
+        public Download getDownload() {
+            return downloads.get(position);
+        }
+
+        @Override
+        public boolean moveToNext() {
+            if (position + 1 >= downloads.size()) {
+                return false;
+            }
+            position++;
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
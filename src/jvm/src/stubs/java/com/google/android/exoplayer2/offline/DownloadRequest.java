@@ -0,0 +1,66 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.offline;
+
+import android.net.Uri;
+
+public final class DownloadRequest {
+    public final String id;
+    public final Uri uri;
+    public final String mimeType;
+    public final String customCacheKey;
+
+    private DownloadRequest(String id, Uri uri, String mimeType, String customCacheKey) {
+        this.id = id;
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.customCacheKey = customCacheKey;
+    }
+
+    public static final class Builder {
+        private final String id;
+        private final Uri uri;
+        private String mimeType;
+        private String customCacheKey;
+
+        public Builder(String id, Uri uri) {
+            this.id = id;
+            this.uri = uri;
+        }
+
+        public Builder setMimeType(String mimeType) {
+            this.mimeType = mimeType;
+            return this;
+        }
+
+        public Builder setCustomCacheKey(String customCacheKey) {
+            this.customCacheKey = customCacheKey;
+            return this;
+        }
+
+        public DownloadRequest build() {
+            return new DownloadRequest(id, uri, mimeType, customCacheKey);
+        }
+    }
+}
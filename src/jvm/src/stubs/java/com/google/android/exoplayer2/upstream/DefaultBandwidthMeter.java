@@ -0,0 +1,54 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream;
+
+import android.content.Context;
+
+public final class DefaultBandwidthMeter implements TransferListener {
+    private final long bitrateEstimate;
+
+    private DefaultBandwidthMeter(long bitrateEstimate) {
+        this.bitrateEstimate = bitrateEstimate;
+    }
+
+    public long getBitrateEstimate() {
+        return bitrateEstimate;
+    }
+
+    public static final class Builder {
+        private long initialBitrateEstimate = 1_000_000;
+
+        public Builder(Context context) {
+        }
+
+        public Builder setInitialBitrateEstimate(long initialBitrateEstimate) {
+            this.initialBitrateEstimate = initialBitrateEstimate;
+            return this;
+        }
+
+        public DefaultBandwidthMeter build() {
+            return new DefaultBandwidthMeter(initialBitrateEstimate);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream;
+
+import android.content.Context;
+import android.net.Uri;
+
+import java.io.IOException;
+
+/**
+ * Loads everything through the base data source, there are no file, asset or content uris on the JVM.
+ */
+public final class DefaultDataSource implements DataSource {
+    private final DataSource baseDataSource;
+
+    private DefaultDataSource(DataSource baseDataSource) {
+        this.baseDataSource = baseDataSource;
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        return baseDataSource.open(dataSpec);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        return baseDataSource.read(buffer, offset, length);
+    }
+
+    @Override
+    public Uri getUri() {
+        return baseDataSource.getUri();
+    }
+
+    @Override
+    public void close() throws IOException {
+        baseDataSource.close();
+    }
+
+    public static final class Factory implements DataSource.Factory {
+        private final DataSource.Factory baseDataSourceFactory;
+        private TransferListener transferListener;
+
+        public Factory(Context context, DataSource.Factory baseDataSourceFactory) {
+            this.baseDataSourceFactory = baseDataSourceFactory;
+        }
+
+        public Factory setTransferListener(TransferListener transferListener) {
+            this.transferListener = transferListener;
+            return this;
+        }
+
+        @Override
+        public DataSource createDataSource() {
+            return new DefaultDataSource(baseDataSourceFactory.createDataSource());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream;
+
+import android.net.Uri;
+
+import java.io.IOException;
+
+/**
+ * Only the factory settings are kept, nothing is loaded through it on the JVM. Use the okhttp stack to load.
+ */
+public final class DefaultHttpDataSource implements HttpDataSource {
+    private DefaultHttpDataSource() {
+    }
+
+    @Override
+    public long open(DataSpec dataSpec) throws IOException {
+        throw new HttpDataSourceException("DefaultHttpDataSource does not load on the JVM", null, dataSpec);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        throw new IOException("Not opened");
+    }
+
+    @Override
+    public Uri getUri() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public static final class Factory implements HttpDataSource.Factory {
+        private String userAgent;
+        private TransferListener transferListener;
+        private int connectTimeoutMs;
+        private int readTimeoutMs;
+        private boolean allowCrossProtocolRedirects;
+
+        public Factory setUserAgent(String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        public Factory setTransferListener(TransferListener transferListener) {
+            this.transferListener = transferListener;
+            return this;
+        }
+
+        public Factory setConnectTimeoutMs(int connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            return this;
+        }
+
+        public Factory setReadTimeoutMs(int readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+            return this;
+        }
+
+        public Factory setAllowCrossProtocolRedirects(boolean allowCrossProtocolRedirects) {
+            this.allowCrossProtocolRedirects = allowCrossProtocolRedirects;
+            return this;
+        }
+
+        @Override
+        public HttpDataSource createDataSource() {
+            return new DefaultHttpDataSource();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.ParserException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Same decisions as the ExoPlayer 2.18.1 class for the errors the stand-ins can raise.
+ */
+public class DefaultLoadErrorHandlingPolicy implements LoadErrorHandlingPolicy {
+    public static final int DEFAULT_MIN_LOADABLE_RETRY_COUNT = 3;
+    public static final int DEFAULT_MIN_LOADABLE_RETRY_COUNT_PROGRESSIVE_LIVE = 6;
+    public static final long DEFAULT_TRACK_EXCLUSION_MS = 60_000;
+    public static final long DEFAULT_LOCATION_EXCLUSION_MS = 5 * 60_000;
+    private static final int DEFAULT_BEHAVIOR_MIN_LOADABLE_RETRY_COUNT = -1;
+
+    private final int minimumLoadableRetryCount;
+
+    public DefaultLoadErrorHandlingPolicy() {
+        this(DEFAULT_BEHAVIOR_MIN_LOADABLE_RETRY_COUNT);
+    }
+
+    public DefaultLoadErrorHandlingPolicy(int minimumLoadableRetryCount) {
+        this.minimumLoadableRetryCount = minimumLoadableRetryCount;
+    }
+
+    @Override
+    public FallbackSelection getFallbackSelectionFor(FallbackOptions fallbackOptions, LoadErrorInfo loadErrorInfo) {
+        if (!isEligibleForFallback(loadErrorInfo.exception)) {
+            return null;
+        }
+        if (fallbackOptions.isFallbackAvailable(FALLBACK_TYPE_LOCATION)) {
+            return new FallbackSelection(FALLBACK_TYPE_LOCATION, DEFAULT_LOCATION_EXCLUSION_MS);
+        }
+        if (fallbackOptions.isFallbackAvailable(FALLBACK_TYPE_TRACK)) {
+            return new FallbackSelection(FALLBACK_TYPE_TRACK, DEFAULT_TRACK_EXCLUSION_MS);
+        }
+        return null;
+    }
+
+    @Override
+    public long getRetryDelayMsFor(LoadErrorInfo loadErrorInfo) {
+        IOException exception = loadErrorInfo.exception;
+        return exception instanceof ParserException || exception instanceof FileNotFoundException
+                ? C.TIME_UNSET
+                : Math.min((loadErrorInfo.errorCount - 1) * 1000, 5000);
+    }
+
+    @Override
+    public int getMinimumLoadableRetryCount(int dataType) {
+        if (minimumLoadableRetryCount == DEFAULT_BEHAVIOR_MIN_LOADABLE_RETRY_COUNT) {
+            return dataType == C.DATA_TYPE_MEDIA_PROGRESSIVE_LIVE
+                    ? DEFAULT_MIN_LOADABLE_RETRY_COUNT_PROGRESSIVE_LIVE
+                    : DEFAULT_MIN_LOADABLE_RETRY_COUNT;
+        }
+        return minimumLoadableRetryCount;
+    }
+
+    private static boolean isEligibleForFallback(IOException exception) {
+        if (!(exception instanceof HttpDataSource.InvalidResponseCodeException)) {
+            return false;
+        }
+        int responseCode = ((HttpDataSource.InvalidResponseCodeException) exception).responseCode;
+        return responseCode == 403 || responseCode == 404 || responseCode == 410 || responseCode == 416
+                || responseCode == 500 || responseCode == 503;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream;
+
+import com.google.android.exoplayer2.source.LoadEventInfo;
+import com.google.android.exoplayer2.source.MediaLoadData;
+
+import java.io.IOException;
+
+public interface LoadErrorHandlingPolicy {
+    int FALLBACK_TYPE_LOCATION = 1;
+    int FALLBACK_TYPE_TRACK = 2;
+
+    final class LoadErrorInfo {
+        public final LoadEventInfo loadEventInfo;
+        public final MediaLoadData mediaLoadData;
+        public final IOException exception;
+        public final int errorCount;
+
+        public LoadErrorInfo(LoadEventInfo loadEventInfo, MediaLoadData mediaLoadData, IOException exception, int errorCount) {
+            this.loadEventInfo = loadEventInfo;
+            this.mediaLoadData = mediaLoadData;
+            this.exception = exception;
+            this.errorCount = errorCount;
+        }
+    }
+
+    final class FallbackOptions {
+        public final int numberOfLocations;
+        public final int numberOfExcludedLocations;
+        public final int numberOfTracks;
+        public final int numberOfExcludedTracks;
+
+        public FallbackOptions(int numberOfLocations, int numberOfExcludedLocations, int numberOfTracks, int numberOfExcludedTracks) {
+            this.numberOfLocations = numberOfLocations;
+            this.numberOfExcludedLocations = numberOfExcludedLocations;
+            this.numberOfTracks = numberOfTracks;
+            this.numberOfExcludedTracks = numberOfExcludedTracks;
+        }
+
+        public boolean isFallbackAvailable(int type) {
+            return type == FALLBACK_TYPE_LOCATION
+                    ? numberOfLocations - numberOfExcludedLocations > 1
+                    : numberOfTracks - numberOfExcludedTracks > 1;
+        }
+    }
+
+    final class FallbackSelection {
+        public final int type;
+        public final long exclusionDurationMs;
+
+        public FallbackSelection(int type, long exclusionDurationMs) {
+            this.type = type;
+            this.exclusionDurationMs = exclusionDurationMs;
+        }
+    }
+
+    FallbackSelection getFallbackSelectionFor(FallbackOptions fallbackOptions, LoadErrorInfo loadErrorInfo);
+
+    long getRetryDelayMsFor(LoadErrorInfo loadErrorInfo);
+
+    int getMinimumLoadableRetryCount(int dataType);
+}
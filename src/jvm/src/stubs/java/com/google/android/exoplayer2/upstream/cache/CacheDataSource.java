@@ -0,0 +1,61 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream.cache;
+
+import com.google.android.exoplayer2.upstream.DataSink;
+import com.google.android.exoplayer2.upstream.DataSource;
+
+/**
+ * Nothing is read from the stand-in cache, data sources of the factory load from upstream.
+ */
+public final class CacheDataSource {
+    private CacheDataSource() {
+    }
+
+    public static final class Factory implements DataSource.Factory {
+        private Cache cache;
+        private DataSource.Factory upstreamDataSourceFactory;
+        private DataSink.Factory cacheWriteDataSinkFactory;
+
+        public Factory setCache(Cache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public Factory setUpstreamDataSourceFactory(DataSource.Factory upstreamDataSourceFactory) {
+            this.upstreamDataSourceFactory = upstreamDataSourceFactory;
+            return this;
+        }
+
+        public Factory setCacheWriteDataSinkFactory(DataSink.Factory cacheWriteDataSinkFactory) {
+            this.cacheWriteDataSinkFactory = cacheWriteDataSinkFactory;
+            return this;
+        }
+
+        @Override
+        public DataSource createDataSource() {
+            return upstreamDataSourceFactory.createDataSource();
+        }
+    }
+}
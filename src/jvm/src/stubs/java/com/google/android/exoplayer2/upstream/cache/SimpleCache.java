@@ -0,0 +1,63 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.upstream.cache;
+
+import com.google.android.exoplayer2.database.DatabaseProvider;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Only counts the cached bytes, nothing is written to the directory. {@link #addSpan} and {@link #removeSpan} stand in
+ * for the writes and removals of the real cache.
+ */
+public final class SimpleCache implements Cache {
+    private final File cacheDir;
+    private final AtomicLong cacheSpace = new AtomicLong();
+
+    public SimpleCache(File cacheDir, CacheEvictor evictor, DatabaseProvider databaseProvider) {
+        this.cacheDir = cacheDir;
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    @Override
+    public long getCacheSpace() {
+        return cacheSpace.get();
+    }
+
+    public void addSpan(long length) {
+        cacheSpace.addAndGet(length);
+    }
+
+    public void removeSpan(long length) {
+        cacheSpace.addAndGet(-length);
+    }
+
+    @Override
+    public void release() {
+    }
+}
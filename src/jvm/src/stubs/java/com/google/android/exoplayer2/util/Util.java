@@ -0,0 +1,56 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package com.google.android.exoplayer2.util;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.google.android.exoplayer2.C;
+
+public final class Util {
+    private Util() {
+    }
+
+    public static String getUserAgent(Context context, String applicationName) {
+        return applicationName + " (Linux;Android) ExoPlayerLib/2.18.1";
+    }
+
+    public static int inferContentType(Uri uri) {
+        String path = uri.getPath();
+        if (null == path) {
+            return C.CONTENT_TYPE_OTHER;
+        }
+        path = path.toLowerCase();
+        if (path.endsWith(".mpd")) {
+            return C.CONTENT_TYPE_DASH;
+        }
+        if (path.endsWith(".m3u8")) {
+            return C.CONTENT_TYPE_HLS;
+        }
+        if (path.matches(".*\\.isml?(/manifest(\\(.+\\))?)?")) {
+            return C.CONTENT_TYPE_SS;
+        }
+        return C.CONTENT_TYPE_OTHER;
+    }
+}
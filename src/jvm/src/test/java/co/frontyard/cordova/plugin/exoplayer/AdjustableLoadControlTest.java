@@ -0,0 +1,73 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AdjustableLoadControlTest {
+    private static final long SECOND_US = 1_000_000;
+
+    @Test
+    void newProfileAppliesToTheNextLoadingDecision() {
+        AdjustableLoadControl loadControl = new AdjustableLoadControl(BufferingProfile.preset("tv"));
+        assertTrue(loadControl.shouldContinueLoading(0, 60 * SECOND_US, 1f), "tv buffers up to 120 s");
+
+        loadControl.setProfile(BufferingProfile.preset("tv").shrink());
+        assertFalse(loadControl.shouldContinueLoading(0, 60 * SECOND_US, 1f), "shrunk profile stops at 20 s");
+        assertTrue(loadControl.shouldContinueLoading(0, 10 * SECOND_US, 1f));
+
+        loadControl.setProfile(BufferingProfile.preset("tv"));
+        assertTrue(loadControl.shouldContinueLoading(0, 60 * SECOND_US, 1f), "restored after the trim");
+    }
+
+    @Test
+    void allProfilesShareOneAllocator() {
+        AdjustableLoadControl loadControl = new AdjustableLoadControl(BufferingProfile.preset("default"));
+        Object allocator = loadControl.getAllocator();
+        loadControl.setProfile(BufferingProfile.preset("lowMemory"));
+        loadControl.shouldStartPlayback(0, 1f, false, 0);
+        assertSame(allocator, loadControl.getAllocator());
+    }
+
+    // ExoPlayer reads the back buffer once when it is built, so it must not look like a later profile changed it.
+    @Test
+    void backBufferStaysTheOneOfTheFirstProfile() {
+        AdjustableLoadControl loadControl = new AdjustableLoadControl(BufferingProfile.preset("tv"));
+        assertEquals(30000, loadControl.getBackBufferMs());
+        assertEquals(30 * SECOND_US, loadControl.getBackBufferDurationUs());
+
+        loadControl.setProfile(BufferingProfile.preset("tv").shrink());
+        loadControl.shouldContinueLoading(0, 0, 1f);
+        assertEquals(30000, loadControl.getBackBufferMs());
+        assertEquals(30 * SECOND_US, loadControl.getBackBufferDurationUs());
+
+        AdjustableLoadControl warmup = new AdjustableLoadControl(BufferingProfile.preset("default"));
+        warmup.setProfile(BufferingProfile.preset("tv"));
+        warmup.shouldContinueLoading(0, 0, 1f);
+        assertEquals(0, warmup.getBackBufferMs());
+        assertEquals(0, warmup.getBackBufferDurationUs());
+    }
+}
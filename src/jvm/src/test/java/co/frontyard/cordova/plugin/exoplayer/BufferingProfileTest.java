@@ -0,0 +1,108 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.LoadControl;
+import com.google.android.exoplayer2.upstream.DefaultAllocator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class BufferingProfileTest {
+    private static LoadControl build(BufferingProfile profile) {
+        return profile.createLoadControl(new DefaultAllocator(true, C.DEFAULT_BUFFER_SEGMENT_SIZE));
+    }
+
+    @Test
+    void presetsBuildLoadControls() {
+        for (String name : new String[] {"default", "lowLatencyStart", "lowMemory", "tv"}) {
+            BufferingProfile profile = BufferingProfile.preset(name);
+            assertDoesNotThrow(() -> build(profile), name);
+            assertDoesNotThrow(() -> build(profile.shrink()), name + " shrunk");
+        }
+    }
+
+    @Test
+    void memoryTargetWinsOverTimeThresholds() {
+        BufferingProfile lowMemory = BufferingProfile.preset("lowMemory");
+        assertEquals(8 * 1024 * 1024, lowMemory.targetBufferBytes);
+        assertFalse(lowMemory.prioritizeTimeOverSizeThresholds());
+
+        BufferingProfile unset = BufferingProfile.preset("tv");
+        assertEquals(C.LENGTH_UNSET, unset.targetBufferBytes);
+        assertTrue(unset.prioritizeTimeOverSizeThresholds());
+    }
+
+    @Test
+    void explicitMemoryTargetIsApplied() throws JSONException {
+        BufferingProfile profile = BufferingProfile.fromConfig(new JSONObject("{preset: 'tv', targetBufferBytes: 4194304}"), new ArrayList<>());
+        assertEquals(4 * 1024 * 1024, profile.targetBufferBytes);
+        assertFalse(profile.prioritizeTimeOverSizeThresholds());
+        assertEquals(120000, profile.maxBufferMs);
+        assertEquals(30000, profile.backBufferMs);
+        assertEquals(30_000_000L, build(profile).getBackBufferDurationUs());
+    }
+
+    @Test
+    void shrinkCapsMemoryTarget() throws JSONException {
+        BufferingProfile shrunk = BufferingProfile.fromConfig(new JSONObject("{preset: 'tv', targetBufferBytes: 67108864}"), new ArrayList<>()).shrink();
+        assertEquals(8 * 1024 * 1024, shrunk.targetBufferBytes);
+        assertEquals(0, shrunk.backBufferMs);
+        assertEquals(20000, shrunk.maxBufferMs);
+    }
+
+    @Test
+    void negativeValuesKeepPresetValues() throws JSONException {
+        List<String> errors = new ArrayList<>();
+        BufferingProfile profile = BufferingProfile.fromConfig(new JSONObject(
+                "{preset: 'lowLatencyStart', minBufferMs: -1, maxBufferMs: -5, bufferForPlaybackMs: -1000,"
+                        + " bufferForPlaybackAfterRebufferMs: -1, backBufferMs: -30000, targetBufferBytes: -2}"), errors);
+        assertEquals(BufferingProfile.preset("lowLatencyStart"), profile);
+        assertEquals(6, errors.size());
+        assertTrue(errors.contains("buffering.backBufferMs: must be at least 0, got -30000"));
+        assertTrue(errors.contains("buffering.targetBufferBytes: must be positive or -1, got -2"));
+        assertDoesNotThrow(() -> build(profile));
+    }
+
+    @Test
+    void validOverridesAreKept() throws JSONException {
+        List<String> errors = new ArrayList<>();
+        BufferingProfile profile = BufferingProfile.fromConfig(new JSONObject(
+                "{minBufferMs: 0, maxBufferMs: 1000, bufferForPlaybackMs: 0, backBufferMs: 0, targetBufferBytes: -1}"), errors);
+        assertEquals(List.of(), errors);
+        assertEquals(0, profile.minBufferMs);
+        assertEquals(1000, profile.maxBufferMs);
+        assertEquals(0, profile.bufferForPlaybackMs);
+        assertEquals(0, profile.bufferForPlaybackAfterRebufferMs);
+        assertEquals(C.LENGTH_UNSET, profile.targetBufferBytes);
+        assertDoesNotThrow(() -> build(profile));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class CommandQueueTest {
+    @Test
+    void recordsTimeCommandsHoldTheMainThread() throws Exception {
+        CommandQueue commands = new CommandQueue();
+        commands.post("fast", () -> {
+        });
+        commands.post("slow", () -> {
+            try {
+                Thread.sleep(40);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        MainThread.idle();
+        JSONObject stats = addStats(commands);
+        assertEquals(2, stats.getInt("commandCount"));
+        assertTrue(stats.getLong("maxCommandTimeMs") >= 40);
+        assertTrue(stats.getLong("commandTimeMs") >= stats.getLong("maxCommandTimeMs"));
+        assertEquals("slow", stats.getString("slowestCommand"));
+        assertEquals("STATS_EVENT", stats.getString("eventType"));
+    }
+
+    @Test
+    void aFailingCommandIsStillCounted() throws Exception {
+        CommandQueue commands = new CommandQueue();
+        commands.post("failing", () -> {
+            throw new IllegalStateException("failed");
+        });
+        commands.post("next", () -> {
+        });
+        MainThread.idle();
+        assertEquals(2, addStats(commands).getInt("commandCount"));
+    }
+
+    private static JSONObject addStats(CommandQueue commands) {
+        return commands.addStats(Payload.statsEvent(0, 0, 0, 0, 0, 0, 0, 0, new int[0], new long[0], 0)).toJson();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationTest {
+    @Test
+    void defaultsWithoutErrors() {
+        Configuration config = new Configuration(null);
+        assertEquals(List.of(), config.getErrors());
+        assertEquals(Configuration.DEFAULT_PLAYER_ID, config.getPlayerId());
+        assertEquals(5000, config.getHideTimeout());
+        assertEquals(BufferingProfile.preset("default"), config.getBufferingProfile());
+    }
+
+    @Test
+    void outOfRangeValuesFallBackAndAreReported() throws JSONException {
+        Configuration config = new Configuration(new JSONObject("{hideTimeout: -1, retryBackoff: 20, aspectRatio: 'STRETCH'}"));
+        assertEquals(5000, config.getHideTimeout());
+        assertEquals(2, config.getRetryBackoff());
+        assertFalse(config.isAspectRatioFillScreen());
+        assertEquals(3, config.getErrors().size());
+    }
+
+    @Test
+    void bufferingFieldsOutOfRangeKeepPresetAndAreReported() throws JSONException {
+        Configuration config = new Configuration(new JSONObject(
+                "{buffering: {preset: 'tv', minBufferMs: -10, backBufferMs: 'lots', maxBufferMs: 90000}}"));
+        BufferingProfile tv = BufferingProfile.preset("tv");
+        BufferingProfile profile = config.getBufferingProfile();
+        assertEquals(tv.minBufferMs, profile.minBufferMs);
+        assertEquals(tv.backBufferMs, profile.backBufferMs);
+        assertEquals(90000, profile.maxBufferMs);
+        assertEquals(List.of(
+                "buffering.minBufferMs: must be at least 0, got -10",
+                "buffering.backBufferMs: expected a number, got lots"), config.getErrors());
+    }
+
+    @Test
+    void unknownBufferingPresetIsReported() throws JSONException {
+        Configuration config = new Configuration(new JSONObject("{buffering: 'huge'}"));
+        assertEquals(BufferingProfile.preset("default"), config.getBufferingProfile());
+        assertEquals(List.of("buffering: unknown preset huge"), config.getErrors());
+    }
+
+    @Test
+    void mergeAndDiffListOnlyChangedSettings() throws JSONException {
+        Configuration config = new Configuration(new JSONObject("{url: 'https://example.com/a.m3u8', hideTimeout: 3000}"));
+        Configuration updated = config.merge(new JSONObject("{hideTimeout: 2000, buffering: 'lowMemory', url: 'https://example.com/a.m3u8'}"));
+        assertEquals(Set.of("hideTimeout", "buffering"), config.diff(updated));
+        assertEquals(2000, updated.getHideTimeout());
+        assertEquals("https://example.com/a.m3u8", updated.getUri().toString());
+    }
+}
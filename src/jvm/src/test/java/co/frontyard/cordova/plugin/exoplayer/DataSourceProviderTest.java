@@ -0,0 +1,188 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import android.content.Context;
+import android.net.Uri;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import okhttp3.*;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+/**
+ * Loads a manifest and then its segments in parallel, the way the audio, video and text loaders of a few players do,
+ * through the shared OkHttp client against a local server, and counts the connections the server saw.
+ */
+class DataSourceProviderTest {
+    private static final int SEGMENTS = 12;
+
+    private MockWebServer server;
+    private HandshakeCertificates clientCertificates;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        HeldCertificate localhost = new HeldCertificate.Builder()
+                .addSubjectAlternativeName("localhost")
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(localhost)
+                .build();
+        clientCertificates = new HandshakeCertificates.Builder()
+                .addTrustedCertificate(localhost.certificate())
+                .build();
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("segment " + request.getPath()).setHeadersDelay(50, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    // The shared client, trusting the test certificate. Clients from newBuilder keep its pool and protocols.
+    private OkHttpClient client(List<Protocol> protocols) {
+        return DataSourceProvider.getOkHttpClient().newBuilder()
+                .sslSocketFactory(clientCertificates.sslSocketFactory(), clientCertificates.trustManager())
+                .protocols(protocols)
+                .build();
+    }
+
+    private Set<Protocol> load(OkHttpClient client) throws Exception {
+        Set<Protocol> protocols = ConcurrentHashMap.newKeySet();
+        protocols.add(get(client, "/stream.m3u8"));
+        ExecutorService loaders = Executors.newFixedThreadPool(SEGMENTS);
+        try {
+            List<Future<Protocol>> segments = new ArrayList<>();
+            for (int i = 0; i < SEGMENTS; i++) {
+                String path = "/segment" + i + ".ts";
+                segments.add(loaders.submit(() -> get(client, path)));
+            }
+            for (Future<Protocol> segment : segments) {
+                protocols.add(segment.get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally {
+            loaders.shutdown();
+        }
+        return protocols;
+    }
+
+    private Protocol get(OkHttpClient client, String path) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(server.url(path)).build()).execute()) {
+            assertEquals(200, response.code());
+            response.body().string();
+            return response.protocol();
+        }
+    }
+
+    // Every connection starts its sequence at 0, so the first requests count the connections used.
+    private int connections() throws InterruptedException {
+        int connections = 0;
+        for (int i = server.getRequestCount(); i > 0; i--) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                connections++;
+            }
+        }
+        return connections;
+    }
+
+    @Test
+    void http2LoadsSegmentsOverOneConnection() throws Exception {
+        assertEquals(Set.of(Protocol.HTTP_2), load(client(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))));
+        assertEquals(SEGMENTS + 1, server.getRequestCount());
+        assertEquals(1, connections());
+    }
+
+    @Test
+    void http11NeedsAConnectionPerParallelSegment() throws Exception {
+        assertEquals(Set.of(Protocol.HTTP_1_1), load(client(List.of(Protocol.HTTP_1_1))));
+        assertEquals(SEGMENTS + 1, server.getRequestCount());
+        assertTrue(connections() >= SEGMENTS / 2, "parallel loads can't share an HTTP/1.1 connection");
+    }
+
+    @Test
+    void preconnectLeavesAConnectionForTheManifest() throws Exception {
+        MockWebServer plain = new MockWebServer();
+        plain.start();
+        try {
+            plain.enqueue(new MockResponse());
+            plain.enqueue(new MockResponse().setBody("#EXTM3U"));
+            Configuration config = new Configuration(new JSONObject("{httpStack: 'okhttp'}"));
+            Uri uri = Uri.parse(plain.url("/stream.m3u8").toString());
+            ConnectionPool pool = DataSourceProvider.getOkHttpClient().connectionPool();
+            int idle = pool.idleConnectionCount();
+
+            DataSourceProvider.preconnect(new Context(), config, uri);
+            RecordedRequest head = plain.takeRequest(5, TimeUnit.SECONDS);
+            assertEquals("HEAD", head.getMethod());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.idleConnectionCount() <= idle && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Request request = new Request.Builder().url(uri.toString()).build();
+            try (Response response = DataSourceProvider.getOkHttpClient().newCall(request).execute()) {
+                assertEquals("#EXTM3U", response.body().string());
+            }
+            RecordedRequest get = plain.takeRequest(5, TimeUnit.SECONDS);
+            assertEquals(head.getSequenceNumber() + 1, get.getSequenceNumber(), "the manifest goes over the preconnected connection");
+        }
+        finally {
+            plain.shutdown();
+        }
+    }
+
+    @Test
+    void preconnectOnlyWithTheOkHttpStack() throws Exception {
+        MockWebServer plain = new MockWebServer();
+        plain.start();
+        try {
+            Configuration config = new Configuration(new JSONObject());
+            DataSourceProvider.preconnect(new Context(), config, Uri.parse(plain.url("/stream.m3u8").toString()));
+            assertNull(plain.takeRequest(200, TimeUnit.MILLISECONDS));
+        }
+        finally {
+            plain.shutdown();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import android.app.Activity;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.exoplayer2.offline.DownloadManager;
+import com.google.android.exoplayer2.upstream.cache.SimpleCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Predicate;
+
+import okhttp3.mockwebserver.*;
+import okio.Buffer;
+import org.apache.cordova.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs Downloads on top of the DownloadManager stub of this harness, which loads an HLS playlist and its segments
+ * through the plugin's OkHttp data source from a local server and counts the loaded bytes as cached.
+ */
+class DownloadsTest {
+    private static final int SEGMENT_BYTES = 1000;
+
+    @TempDir
+    File filesDir;
+
+    private final BlockingQueue<JSONObject> events = new LinkedBlockingQueue<>();
+    private final AtomicInteger segmentRequests = new AtomicInteger();
+    private final AtomicInteger activeSegments = new AtomicInteger();
+    private final AtomicInteger maxActiveSegments = new AtomicInteger();
+    private MockWebServer server;
+    private Activity activity;
+    private int segmentCount;
+    private long segmentDelayMs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DownloadManager.CALLS.clear();
+        activity = new Activity();
+        activity.setFilesDir(filesDir);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if ("/movie.m3u8".equals(request.getPath())) {
+                    StringBuilder playlist = new StringBuilder("#EXTM3U\n#EXT-X-TARGETDURATION:1\n");
+                    for (int i = 0; i < segmentCount; i++) {
+                        playlist.append("#EXTINF:1,\nsegment").append(i).append(".ts\n");
+                    }
+                    return new MockResponse().setBody(playlist.append("#EXT-X-ENDLIST\n").toString());
+                }
+                // Held here rather than with a body delay, so the requests in flight at the same time can be counted.
+                segmentRequests.incrementAndGet();
+                maxActiveSegments.accumulateAndGet(activeSegments.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(segmentDelayMs);
+                }
+                finally {
+                    activeSegments.decrementAndGet();
+                }
+                return new MockResponse().setBody(new Buffer().write(new byte[SEGMENT_BYTES]));
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        onMain(Downloads::release);
+        server.shutdown();
+    }
+
+    private static void onMain(Runnable runnable) throws InterruptedException {
+        new Handler(Looper.getMainLooper()).post(runnable);
+        MainThread.idle();
+    }
+
+    private void init(String options) throws Exception {
+        CallbackContext callbackContext = new CallbackContext("downloads") {
+            @Override
+            public void sendPluginResult(PluginResult pluginResult) {
+                try {
+                    events.add(new JSONObject(pluginResult.getMessage()));
+                }
+                catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        JSONObject json = new JSONObject(options);
+        json.put("httpStack", "okhttp");
+        onMain(() -> Downloads.init(activity, json, callbackContext));
+    }
+
+    private boolean add(String id) throws InterruptedException {
+        AtomicBoolean added = new AtomicBoolean();
+        JSONObject request = new JSONObject(Collections.singletonMap("id", id));
+        onMain(() -> {
+            try {
+                request.put("url", movieUrl());
+                added.set(Downloads.add(request));
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return added.get();
+    }
+
+    private String movieUrl() {
+        return server.url("/movie.m3u8").toString();
+    }
+
+    private JSONObject awaitEvent(String eventType, Predicate<JSONObject> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            JSONObject event = events.poll(100, TimeUnit.MILLISECONDS);
+            if (null != event && eventType.equals(event.optString("eventType")) && condition.test(event)) {
+                return event;
+            }
+        }
+        throw new AssertionError("no " + eventType + " received");
+    }
+
+    private static Predicate<JSONObject> state(String state) {
+        return event -> state.equals(event.optString("state"));
+    }
+
+    private static long bytes(JSONObject event) {
+        return Long.parseLong(event.optString("bytesDownloaded"));
+    }
+
+    @Test
+    void segmentsAreLoadedInParallelUntilTheDownloadCompletes() throws Exception {
+        segmentCount = 4;
+        segmentDelayMs = 100;
+        init("{concurrency: 2, progressInterval: 50}");
+        assertTrue(add("movie"));
+
+        JSONObject completed = awaitEvent("DOWNLOAD_EVENT", state("COMPLETED"));
+        assertEquals(4 * SEGMENT_BYTES, bytes(completed));
+        assertEquals(4, segmentRequests.get());
+        assertEquals(2, maxActiveSegments.get(), "segments of one download are loaded on the executor");
+        MainThread.idle();
+        assertTrue(Downloads.isDownloaded(Uri.parse(movieUrl())));
+        assertEquals(4 * SEGMENT_BYTES, Downloads.list().toJson().optLong("usedBytes"));
+    }
+
+    @Test
+    void reachingTheQuotaPausesDownloadsAndRejectsNewOnes() throws Exception {
+        segmentCount = 10;
+        segmentDelayMs = 100;
+        init("{concurrency: 1, progressInterval: 50, quotaBytes: 2500}");
+        assertTrue(add("movie"));
+
+        JSONObject quota = awaitEvent("DOWNLOAD_QUOTA_EXCEEDED_EVENT", event -> true);
+        assertTrue(quota.optLong("usedBytes") >= 2500, quota.toString());
+        assertEquals(2500, quota.optLong("quotaBytes"));
+        assertTrue(DownloadManager.CALLS.contains("pauseDownloads"));
+
+        assertFalse(add("other"));
+        awaitEvent("DOWNLOAD_QUOTA_EXCEEDED_EVENT", event -> true);
+        JSONObject list = Downloads.list().toJson();
+        assertEquals(1, list.getJSONArray("downloads").length());
+        assertEquals("QUEUED", list.getJSONArray("downloads").getJSONObject(0).optString("state"));
+        assertTrue(segmentRequests.get() < segmentCount, "downloads stop loading segments once paused");
+    }
+
+    @Test
+    void pausedDownloadResumesWithTheSegmentsItIsMissing() throws Exception {
+        segmentCount = 6;
+        segmentDelayMs = 100;
+        init("{concurrency: 1, progressInterval: 50}");
+        assertTrue(add("movie"));
+        awaitEvent("DOWNLOAD_PROGRESS_EVENT", event -> bytes(event) >= 2 * SEGMENT_BYTES);
+
+        onMain(() -> Downloads.pause("movie"));
+        JSONObject stopped = awaitEvent("DOWNLOAD_EVENT", state("STOPPED"));
+        assertEquals("1", stopped.optString("stopReason"));
+        assertTrue(bytes(stopped) < segmentCount * SEGMENT_BYTES);
+
+        onMain(() -> Downloads.resume("movie"));
+        JSONObject completed = awaitEvent("DOWNLOAD_EVENT", state("COMPLETED"));
+        assertEquals(segmentCount * SEGMENT_BYTES, bytes(completed));
+        // Only a segment still in flight when the download was paused is loaded again.
+        assertTrue(segmentRequests.get() <= segmentCount + 1, "segment requests: " + segmentRequests.get());
+    }
+
+    @Test
+    void invalidOptionsKeepTheirDefaultsAndAreReported() throws Exception {
+        segmentCount = 1;
+        init("{concurrency: 0, directory: '../outside', quotaBytes: 'lots'}");
+
+        JSONObject error = awaitEvent("CONFIG_ERROR_EVENT", event -> true);
+        assertEquals(3, error.getJSONArray("errors").length(), error.toString());
+        assertEquals(new File(filesDir, "downloads"), ((SimpleCache) Downloads.getCache()).getCacheDir());
+        assertTrue(add("movie"));
+        awaitEvent("DOWNLOAD_EVENT", state("COMPLETED"));
+    }
+}
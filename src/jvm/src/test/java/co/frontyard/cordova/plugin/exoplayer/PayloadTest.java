@@ -0,0 +1,83 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import co.frontyard.cordova.plugin.exoplayer.benchmark.FakePlayer;
+import com.google.android.exoplayer2.*;
+import com.google.common.collect.ImmutableList;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+class PayloadTest {
+    private final FakePlayer player = new FakePlayer();
+
+    @AfterEach
+    void tearDown() {
+        Payload.setTypedValues(false);
+    }
+
+    @Test
+    void valuesAreStringsByDefault() throws Exception {
+        JSONObject json = Payload.stateEvent(player, ExoPlayer.STATE_READY, true).toJson();
+        assertEquals("STATE_CHANGED_EVENT", json.get("eventType"));
+        assertEquals("634000", json.get("duration"));
+        assertEquals("true", json.get("playWhenReady"));
+        assertEquals("true", json.get("controllerVisible"));
+        assertEquals("STATE_READY", json.get("playbackState"));
+    }
+
+    @Test
+    void valuesAreTypedWhenEnabled() throws Exception {
+        Payload.setTypedValues(true);
+        JSONObject json = Payload.stateEvent(player, ExoPlayer.STATE_READY, true).toJson();
+        assertEquals(634_000L, json.get("duration"));
+        assertEquals(Boolean.TRUE, json.get("playWhenReady"));
+        assertEquals(Boolean.TRUE, json.get("controllerVisible"));
+    }
+
+    @Test
+    void trackFieldsAreAlwaysTyped() throws Exception {
+        Format format = new Format.Builder().setId("en").setLanguage("en").setChannelCount(2).build();
+        Tracks tracks = new Tracks(ImmutableList.of(new Tracks.Group(C.TRACK_TYPE_AUDIO,
+                new Format[] {format}, new int[] {C.FORMAT_HANDLED}, new boolean[] {true})));
+        JSONObject track = Payload.tracksChanged(player, tracks).toJson().getJSONArray("tracks").getJSONObject(0);
+        assertEquals(2, track.get("channelCount"));
+        assertEquals(Boolean.TRUE, track.get("isSelected"));
+        assertEquals(JSONObject.NULL, track.get("codecs"));
+    }
+
+    // The JSON is built later on the sender thread, from the values the player had when the event happened.
+    @Test
+    void playerValuesAreReadWhenThePayloadIsCreated() throws Exception {
+        Payload payload = Payload.stateEvent(player, ExoPlayer.STATE_READY, true);
+        player.position = 200_000;
+        player.playWhenReady = false;
+        JSONObject json = payload.toJson();
+        assertEquals("120500", json.get("position"));
+        assertEquals("true", json.get("playWhenReady"));
+    }
+}
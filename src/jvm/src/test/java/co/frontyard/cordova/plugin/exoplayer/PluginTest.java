@@ -0,0 +1,266 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+import com.google.android.exoplayer2.offline.DownloadManager;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.apache.cordova.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.jupiter.api.*;
+
+class PluginTest {
+    private static final ExecutorService THREAD_POOL = Executors.newCachedThreadPool();
+
+    private Plugin plugin;
+    private final List<String> permissionRequests = new CopyOnWriteArrayList<>();
+
+    static class RecordingContext extends CallbackContext {
+        final BlockingQueue<PluginResult> results = new LinkedBlockingQueue<>();
+
+        RecordingContext() {
+            super("test");
+        }
+
+        @Override
+        public void sendPluginResult(PluginResult pluginResult) {
+            results.add(pluginResult);
+        }
+
+        PluginResult next() throws InterruptedException {
+            PluginResult result = results.poll(5, TimeUnit.SECONDS);
+            assertNotNull(result, "no result sent");
+            return result;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Player.CALLS.clear();
+        DownloadManager.CALLS.clear();
+        Activity activity = new Activity();
+        View view = new View();
+        plugin = new Plugin();
+        plugin.privateInitialize("ExoPlayer", new CordovaInterface() {
+            public Activity getActivity() {
+                return activity;
+            }
+
+            public ExecutorService getThreadPool() {
+                return THREAD_POOL;
+            }
+
+            public boolean hasPermission(String permission) {
+                return false;
+            }
+
+            public void requestPermission(CordovaPlugin plugin, int requestCode, String permission) {
+                permissionRequests.add(permission);
+            }
+        }, () -> view, new CordovaPreferences());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        new Handler(Looper.getMainLooper()).post(Downloads::release);
+        MainThread.idle();
+    }
+
+    private boolean execute(String action, String args, CallbackContext context) throws JSONException {
+        return plugin.execute(action, new JSONArray(args), context);
+    }
+
+    private boolean execute(String action, String args) throws JSONException {
+        return execute(action, args, new RecordingContext());
+    }
+
+    @Test
+    void commandsRunInCallOrderOnTheMainThread() throws Exception {
+        CountDownLatch release = MainThread.block();
+        assertTrue(execute("show", "[{id: 'a', url: 'https://example.com/a.m3u8'}]"));
+        assertTrue(execute("play", "['a']"));
+        assertTrue(execute("seekTo", "[1000, 'a']"));
+        assertTrue(execute("pause", "['a']"));
+        assertTrue(execute("setZIndex", "[2, 'a']"));
+        assertTrue(execute("getState", "['a']"));
+        assertTrue(execute("close", "['a']"));
+        assertTrue(execute("play", "['a']"));
+        assertEquals(List.of(), Player.CALLS, "nothing may run while the main thread is busy");
+        release.countDown();
+        MainThread.idle();
+        assertEquals(List.of("a.new", "a.createPlayer", "a.play", "a.seekTo", "a.pause", "a.setZIndex", "a.getPlayerState", "a.close"), Player.CALLS);
+    }
+
+    // Cordova calls onPause and onResume on the main thread, they queue behind the commands that came before them.
+    @Test
+    void pauseAndResumeRunAfterQueuedCommands() throws Exception {
+        CountDownLatch release = MainThread.block();
+        assertTrue(execute("show", "[{id: 'a'}]"));
+        plugin.onPause(false);
+        plugin.onResume(false);
+        release.countDown();
+        MainThread.idle();
+        assertEquals(List.of("a.new", "a.createPlayer", "a.setInBackground", "a.setInBackground"), Player.CALLS);
+    }
+
+    @Test
+    void missingPlayerGetsAnError() throws Exception {
+        RecordingContext context = new RecordingContext();
+        assertTrue(execute("play", "['missing']", context));
+        assertEquals(PluginResult.Status.ERROR.ordinal(), context.next().getStatus());
+        assertEquals(List.of(), Player.CALLS);
+    }
+
+    @Test
+    void nullIdAddressesTheDefaultPlayer() throws Exception {
+        assertTrue(execute("show", "[{url: 'https://example.com/a.m3u8'}]"));
+        assertTrue(execute("play", "[null]"));
+        assertTrue(execute("pause", "[]"));
+        MainThread.idle();
+        assertEquals(List.of("default.new", "default.createPlayer", "default.play", "default.pause"), Player.CALLS);
+    }
+
+    @Test
+    void resultsFollowTheOrderOfCommands() throws Exception {
+        RecordingContext context = new RecordingContext();
+        assertTrue(execute("show", "[{id: 'a'}]"));
+        for (int i = 0; i < 50; i++) {
+            assertTrue(execute(i % 2 == 0 ? "seekTo" : "getState", i % 2 == 0 ? "[" + i + ", 'a']" : "['a']", context));
+        }
+        MainThread.idle();
+        for (int i = 0; i < 50; i++) {
+            PluginResult result = context.next();
+            assertEquals(PluginResult.Status.OK.ordinal(), result.getStatus());
+            assertEquals(i % 2 == 0, result.getKeepCallback(), "result " + i);
+        }
+    }
+
+    // Calls come in on the bridge thread, they must only queue work and never wait for a busy main thread.
+    @Test
+    void executeDoesNotWaitForTheMainThread() throws Exception {
+        assertTrue(execute("show", "[{id: 'a'}]"));
+        MainThread.idle();
+        CountDownLatch release = MainThread.block();
+        long maxNanos = 0;
+        try {
+            for (int i = 0; i < 200; i++) {
+                long start = System.nanoTime();
+                execute(i % 2 == 0 ? "seekBy" : "play", i % 2 == 0 ? "[1000, 'a']" : "['a']");
+                maxNanos = Math.max(maxNanos, System.nanoTime() - start);
+            }
+        }
+        finally {
+            release.countDown();
+        }
+        assertTrue(maxNanos < TimeUnit.MILLISECONDS.toNanos(50), "execute blocked for " + maxNanos / 1000 + " us");
+        MainThread.idle();
+        assertEquals(2 + 200, Player.CALLS.size());
+    }
+
+    @Test
+    void trimLevelsMapToStages() {
+        assertEquals(Plugin.TRIM_STAGE_NONE, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN));
+        assertEquals(Plugin.TRIM_STAGE_NONE, Plugin.trimStage(0));
+        assertEquals(Plugin.TRIM_STAGE_BUFFERS, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE));
+        assertEquals(Plugin.TRIM_STAGE_CACHES, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW));
+        assertEquals(Plugin.TRIM_STAGE_RELEASE, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL));
+        assertEquals(Plugin.TRIM_STAGE_RELEASE, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND));
+        assertEquals(Plugin.TRIM_STAGE_RELEASE, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_MODERATE));
+        assertEquals(Plugin.TRIM_STAGE_RELEASE, Plugin.trimStage(ComponentCallbacks2.TRIM_MEMORY_COMPLETE));
+    }
+
+    @Test
+    void trimMemoryReachesEveryPlayer() throws Exception {
+        assertTrue(execute("show", "[{id: 'a'}]"));
+        assertTrue(execute("show", "[{id: 'b'}]"));
+        RecordingContext context = new RecordingContext();
+        assertTrue(execute("trimMemory", "[" + ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL + "]", context));
+        assertEquals(PluginResult.Status.OK.ordinal(), context.next().getStatus());
+        assertEquals(List.of("a.new", "a.createPlayer", "b.new", "b.createPlayer", "a.trimMemory", "b.trimMemory"), Player.CALLS);
+        Player.CALLS.clear();
+        assertTrue(execute("trimMemory", "[" + ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN + "]"));
+        MainThread.idle();
+        assertEquals(List.of(), Player.CALLS);
+    }
+
+    @Test
+    void backgroundPlayersAskForTheNotificationPermissionOnce() throws Exception {
+        assertTrue(execute("show", "[{id: 'a'}]"));
+        assertTrue(execute("show", "[{id: 'b', audioOnly: true, backgroundService: false}]"));
+        MainThread.idle();
+        assertEquals(List.of(), permissionRequests, "only the background service needs it");
+
+        assertTrue(execute("show", "[{id: 'c', audioOnly: true}]"));
+        assertTrue(execute("show", "[{id: 'd', audioOnly: true}]"));
+        MainThread.idle();
+        assertEquals(List.of(Plugin.POST_NOTIFICATIONS), permissionRequests);
+    }
+
+    @Test
+    void downloadWithoutUrlFails() throws Exception {
+        assertTrue(execute("initDownloads", "[{}]"));
+        for (String args : List.of("[{id: 'a'}]", "[{id: 'a', url: ''}]", "[{id: 'a', url: null}]", "[]")) {
+            RecordingContext context = new RecordingContext();
+            assertTrue(execute("download", args, context));
+            assertEquals(PluginResult.Status.ERROR.ordinal(), context.next().getStatus(), args);
+        }
+        RecordingContext context = new RecordingContext();
+        assertTrue(execute("download", "[{id: 'a', url: 'https://example.com/a.m3u8'}]", context));
+        assertEquals(PluginResult.Status.OK.ordinal(), context.next().getStatus());
+    }
+
+    @Test
+    void nullDownloadIdAddressesAllDownloads() throws Exception {
+        assertTrue(execute("initDownloads", "[{}]"));
+        MainThread.idle();
+        DownloadManager.CALLS.clear();
+        assertTrue(execute("pauseDownload", "[null]"));
+        assertTrue(execute("resumeDownload", "[]"));
+        assertTrue(execute("removeDownload", "[null]"));
+        assertTrue(execute("pauseDownload", "['movie-1']"));
+        MainThread.idle();
+        // Removing needs an id, there is no call for all downloads.
+        assertEquals(List.of("pauseDownloads", "resumeDownloads", "setStopReason:movie-1:1"), DownloadManager.CALLS);
+    }
+
+    @Test
+    void showReusesThePlayerOnlyWhenAsked() throws Exception {
+        assertTrue(execute("show", "[{id: 'a', url: 'https://example.com/a.m3u8'}]"));
+        assertTrue(execute("show", "[{id: 'a', url: 'https://example.com/b.m3u8', reusePlayer: true}]"));
+        assertTrue(execute("show", "[{id: 'a', url: 'https://example.com/c.m3u8'}]"));
+        MainThread.idle();
+        assertEquals(List.of("a.new", "a.createPlayer", "a.reuse", "a.close", "a.new", "a.createPlayer"), Player.CALLS);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ The MIT License (MIT)
+
+ Copyright (c) 2017 Nedim Cholich
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package co.frontyard.cordova.plugin.exoplayer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import android.net.Uri;
+
+import com.google.android.exoplayer2.C;
+import com.google.android.exoplayer2.ParserException;
+import com.google.android.exoplayer2.upstream.*;
+import com.google.android.exoplayer2.upstream.LoadErrorHandlingPolicy.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.json.JSONObject;
+import org.junit.jupiter.api.*;
+
+/**
+ * Runs RetryPolicy on top of the hand-written DefaultLoadErrorHandlingPolicy stub of this harness, not ExoPlayer. A
+ * loop that works like ExoPlayer's Loader loads segments from local servers that answer with 5xx errors or stall, and
+ * retries a failed load after the delay the policy returns until it gives up or the retry count runs out.
+ */
+class RetryPolicyTest {
+    private static final int STALL_TIMEOUT_MS = 200;
+
+    private final List<Long> delays = new ArrayList<>();
+    private final List<String> failovers = new ArrayList<>();
+    private MockWebServer primary;
+    private MockWebServer mirror;
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primary = new MockWebServer();
+        primary.start();
+        mirror = new MockWebServer();
+        mirror.start();
+        client = DataSourceProvider.getOkHttpClient().newBuilder()
+                .readTimeout(STALL_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(false)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        primary.shutdown();
+        mirror.shutdown();
+    }
+
+    private Configuration config(String json) throws Exception {
+        JSONObject options = new JSONObject(json);
+        options.put("url", primary.url("/live/stream.m3u8").toString());
+        return new Configuration(options);
+    }
+
+    private String load(RetryPolicy policy, Failover failover, String path) throws Exception {
+        return load(policy, failover, primary, path);
+    }
+
+    private String load(RetryPolicy policy, Failover failover, MockWebServer server, String path) throws Exception {
+        DataSpec dataSpec = new DataSpec(Uri.parse(server.url(path).toString()));
+        for (int errorCount = 1; ; errorCount++) {
+            DataSpec resolved = null != failover ? failover.resolveDataSpec(dataSpec) : dataSpec;
+            try (Response response = client.newCall(new Request.Builder().url(resolved.uri.toString()).build()).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new HttpDataSource.InvalidResponseCodeException(response.code(), response.message(), resolved);
+                }
+                return response.body().string();
+            }
+            catch (IOException e) {
+                if (errorCount > policy.getMinimumLoadableRetryCount(C.DATA_TYPE_MEDIA)) {
+                    throw e;
+                }
+                long delayMs = policy.getRetryDelayMsFor(new LoadErrorInfo(null, null, e, errorCount));
+                if (delayMs == C.TIME_UNSET) {
+                    throw e;
+                }
+                delays.add(delayMs);
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+
+    @Test
+    void serverErrorsAreRetriedWithGrowingDelays() throws Exception {
+        RetryPolicy policy = new RetryPolicy(config("{retryDelay: 20, retryBackoff: 2, retryMaxDelay: 50, retryJitter: 0}"), null);
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        primary.enqueue(new MockResponse().setResponseCode(500));
+        primary.enqueue(new MockResponse().setResponseCode(502));
+        primary.enqueue(new MockResponse().setBody("segment"));
+        assertEquals("segment", load(policy, null, "/live/segment1.ts"));
+        assertEquals(List.of(20L, 40L, 50L), delays);
+        assertEquals(4, primary.getRequestCount());
+    }
+
+    @Test
+    void jitterSpreadsTheDelays() throws Exception {
+        RetryPolicy policy = new RetryPolicy(config("{retryDelay: 1000, retryJitter: 0.2}"), null);
+        IOException error = new HttpDataSource.InvalidResponseCodeException(503, "Service Unavailable", null);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            long delayMs = policy.getRetryDelayMsFor(new LoadErrorInfo(null, null, error, 1));
+            assertTrue(delayMs >= 800 && delayMs <= 1200, "delay " + delayMs);
+            seen.add(delayMs);
+        }
+        assertTrue(seen.size() > 1, "players failing together must not retry in lockstep");
+    }
+
+    @Test
+    void stalledLoadsAreRetried() throws Exception {
+        RetryPolicy policy = new RetryPolicy(config("{retryDelay: 10, retryJitter: 0}"), null);
+        primary.enqueue(new MockResponse().setBody("late").setHeadersDelay(STALL_TIMEOUT_MS * 5, TimeUnit.MILLISECONDS));
+        primary.enqueue(new MockResponse().setBody("segment"));
+        assertEquals("segment", load(policy, null, "/live/segment1.ts"));
+        assertEquals(List.of(10L), delays);
+    }
+
+    @Test
+    void givesUpAfterTheRetryCount() throws Exception {
+        RetryPolicy policy = new RetryPolicy(config("{retryCount: 2, retryDelay: 1, retryJitter: 0}"), null);
+        for (int i = 0; i < 4; i++) {
+            primary.enqueue(new MockResponse().setResponseCode(503));
+        }
+        HttpDataSource.InvalidResponseCodeException error = assertThrows(HttpDataSource.InvalidResponseCodeException.class,
+                () -> load(policy, null, "/live/segment1.ts"));
+        assertEquals(503, error.responseCode);
+        assertEquals(3, primary.getRequestCount());
+    }
+
+    @Test
+    void permanentErrorsAreNotRetried() throws Exception {
+        RetryPolicy policy = new RetryPolicy(config("{}"), null);
+        assertEquals(C.TIME_UNSET, policy.getRetryDelayMsFor(new LoadErrorInfo(null, null, new ParserException("bad playlist"), 1)));
+    }
+
+    @Test
+    void stalledHostFailsOverToTheMirror() throws Exception {
+        Configuration config = config("{retryDelay: 10, retryJitter: 0, failoverAfter: 2, fallbackUrls: ['" + mirror.url("/mirror/") + "']}");
+        Failover failover = Failover.create(config, failovers::add);
+        RetryPolicy policy = new RetryPolicy(config, failover);
+        for (int i = 0; i < 2; i++) {
+            primary.enqueue(new MockResponse().setBody("late").setHeadersDelay(STALL_TIMEOUT_MS * 5, TimeUnit.MILLISECONDS));
+        }
+        mirror.enqueue(new MockResponse().setBody("segment from mirror"));
+        mirror.enqueue(new MockResponse().setBody("next segment from mirror"));
+
+        assertEquals("segment from mirror", load(policy, failover, "/live/segment1.ts"));
+        assertEquals(List.of(10L, 0L), delays, "the retry after a switch goes out at once");
+        assertEquals(List.of(mirror.url("/mirror/").toString()), failovers);
+        assertEquals("/mirror/segment1.ts", mirror.takeRequest().getPath());
+
+        assertEquals("next segment from mirror", load(policy, failover, "/live/segment2.ts"));
+        assertEquals("/mirror/segment2.ts", mirror.takeRequest().getPath());
+        assertEquals(2, primary.getRequestCount());
+    }
+
+    // A playlist item on a host the mirrors don't stand in for keeps the normal backoff and never switches mirrors.
+    @Test
+    void itemsOnOtherHostsDoNotFailOver() throws Exception {
+        Configuration config = config("{retryDelay: 10, retryBackoff: 2, retryJitter: 0, failoverAfter: 1, fallbackUrls: ['" + mirror.url("/mirror/") + "']}");
+        Failover failover = Failover.create(config, failovers::add);
+        MockWebServer other = new MockWebServer();
+        try {
+            other.start();
+            Uri otherUri = Uri.parse(other.url("/vod/movie.m3u8").toString());
+            assertSame(failover, failover.forUri(Uri.parse(primary.url("/live/other.m3u8").toString())));
+            assertNull(failover.forUri(otherUri));
+
+            Failover itemFailover = failover.forUri(otherUri);
+            RetryPolicy policy = new RetryPolicy(config, itemFailover);
+            other.enqueue(new MockResponse().setResponseCode(503));
+            other.enqueue(new MockResponse().setResponseCode(503));
+            other.enqueue(new MockResponse().setBody("segment"));
+            assertEquals("segment", load(policy, itemFailover, other, "/vod/segment1.ts"));
+            assertEquals(List.of(10L, 20L), delays);
+            assertEquals(List.of(), failovers);
+            assertEquals(0, mirror.getRequestCount());
+        }
+        finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void failingRenditionsAreNotExcludedWhenMirrorsAreSet() throws Exception {
+        IOException error = new HttpDataSource.InvalidResponseCodeException(503, "Service Unavailable", null);
+        LoadErrorInfo info = new LoadErrorInfo(null, null, error, 1);
+        FallbackOptions options = new FallbackOptions(1, 0, 3, 0);
+
+        FallbackSelection selection = new RetryPolicy(config("{}"), null).getFallbackSelectionFor(options, info);
+        assertNotNull(selection);
+        assertEquals(LoadErrorHandlingPolicy.FALLBACK_TYPE_TRACK, selection.type);
+
+        Configuration config = config("{fallbackUrls: ['" + mirror.url("/mirror/") + "']}");
+        assertNull(new RetryPolicy(config, Failover.create(config, failovers::add)).getFallbackSelectionFor(options, info));
+    }
+}
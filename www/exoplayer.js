@@ -22,53 +22,165 @@
  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  SOFTWARE.
  */
-module.exports = {
-    show: function (parameters, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "show", [parameters]);
-    },
-    setDimensions: function (parameters, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "setDimensions", [parameters]);
-    }, 
-    setActiveTrack: function (parameters, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "setActiveTrack", [parameters]);
-    },
-    setStream: function (url, controller, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "setStream", [url, controller]);
-    },
-    playPause: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "playPause", []);
-    },
-    play: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "play", []);
-    },
-    pause: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "pause", []);
-    },
-    stop: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "stop", []);
-    },
-    seekTo: function (milliseconds, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "seekTo", [milliseconds]);
-    },
-    seekBy: function (milliseconds, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "seekBy", [milliseconds]);
-    },
-    getState: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "getState", []);
-    },
-    showController: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "showController", []);
-    },
-    hideController: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "hideController", []);
-    },
-    setController: function (controller, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "setController", [controller]);
-    },
-    close: function (successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "close", []);
-    },
-    setZIndex: function (zIndex, successCallback, errorCallback) {
-        cordova.exec(successCallback, errorCallback, "ExoPlayer", "setZIndex", [zIndex]);
+// With eventBatchInterval set, events arrive as arrays, hand them to the callback one at a time.
+function unbatch(callback) {
+    if (!callback) {
+        return callback;
     }
+    return function (result) {
+        if (Array.isArray(result)) {
+            result.forEach(function (event) {
+                callback(event);
+            });
+        }
+        else {
+            callback(result);
+        }
+    };
+}
+
+// Player actions take the id of the player they address as an extra last argument, without it the default player is used.
+function exec(id, successCallback, errorCallback, action, args) {
+    if (id !== undefined) {
+        args.push(id);
+    }
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", action, args);
+}
+
+function withId(parameters, id) {
+    var copy = {};
+    for (var key in parameters) {
+        if (parameters.hasOwnProperty(key)) {
+            copy[key] = parameters[key];
+        }
+    }
+    copy.id = id;
+    return copy;
+}
+
+function playerApi(id) {
+    return {
+        show: function (parameters, successCallback, errorCallback) {
+            if (id !== undefined) {
+                parameters = withId(parameters, id);
+            }
+            cordova.exec(unbatch(successCallback), errorCallback, "ExoPlayer", "show", [parameters]);
+        },
+        setDimensions: function (parameters, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setDimensions", [parameters]);
+        },
+        setActiveTrack: function (parameters, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setActiveTrack", [parameters]);
+        },
+        setVideoConstraints: function (constraints, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setVideoConstraints", [constraints]);
+        },
+        setStream: function (url, controller, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setStream", [url, controller]);
+        },
+        setPlaylist: function (items, startIndex, positionMs, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setPlaylist", [items, startIndex, positionMs]);
+        },
+        addToPlaylist: function (items, index, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "addToPlaylist", [items, index]);
+        },
+        removeFromPlaylist: function (index, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "removeFromPlaylist", [index]);
+        },
+        movePlaylistItem: function (fromIndex, toIndex, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "movePlaylistItem", [fromIndex, toIndex]);
+        },
+        seekToItem: function (index, positionMs, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "seekToItem", [index, positionMs]);
+        },
+        playPause: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "playPause", []);
+        },
+        play: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "play", []);
+        },
+        pause: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "pause", []);
+        },
+        stop: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "stop", []);
+        },
+        seekTo: function (milliseconds, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "seekTo", [milliseconds]);
+        },
+        seekBy: function (milliseconds, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "seekBy", [milliseconds]);
+        },
+        seekToLiveEdge: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "seekToLiveEdge", []);
+        },
+        setSeekPrecision: function (precision, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setSeekPrecision", [precision]);
+        },
+        getState: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "getState", []);
+        },
+        getStats: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "getStats", []);
+        },
+        setProgressInterval: function (milliseconds, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setProgressInterval", [milliseconds]);
+        },
+        updateConfig: function (changes, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "updateConfig", [changes]);
+        },
+        showController: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "showController", []);
+        },
+        hideController: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "hideController", []);
+        },
+        setController: function (controller, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setController", [controller]);
+        },
+        close: function (successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "close", []);
+        },
+        setZIndex: function (zIndex, successCallback, errorCallback) {
+            exec(id, successCallback, errorCallback, "setZIndex", [zIndex]);
+        }
+    };
+}
+
+var api = playerApi(undefined);
+
+api.player = function (id) {
+    return playerApi(id);
+};
+api.setMaxPlayers = function (maxPlayers, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "setMaxPlayers", [maxPlayers]);
+};
+api.trimMemory = function (level, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "trimMemory", [level]);
 };
+api.preload = function (parameters, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "preload", [parameters]);
+};
+api.prefetchArtwork = function (urls, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "prefetchArtwork", [urls]);
+};
+api.initDownloads = function (options, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "initDownloads", [options]);
+};
+api.download = function (request, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "download", [request]);
+};
+api.pauseDownload = function (id, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "pauseDownload", [id]);
+};
+api.resumeDownload = function (id, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "resumeDownload", [id]);
+};
+api.removeDownload = function (id, successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "removeDownload", [id]);
+};
+api.getDownloads = function (successCallback, errorCallback) {
+    cordova.exec(successCallback, errorCallback, "ExoPlayer", "getDownloads", []);
+};
+
+module.exports = api;